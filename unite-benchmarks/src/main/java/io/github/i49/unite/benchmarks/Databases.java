@@ -0,0 +1,43 @@
+/* 
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.i49.unite.benchmarks;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import io.github.i49.unite.core.storage.util.DirectDataSource;
+
+/**
+ * In-process databases used by the benchmarks.
+ */
+final class Databases {
+    
+    private static final AtomicInteger sequence = new AtomicInteger();
+    
+    /**
+     * Creates a data source of a new in-memory HSQLDB database.
+     * 
+     * @return newly created data source.
+     */
+    static DataSource newDatabase() {
+        String url = "jdbc:hsqldb:mem:benchmark" + sequence.incrementAndGet();
+        return new DirectDataSource(url, "sa", null);
+    }
+    
+    private Databases() {
+    }
+}
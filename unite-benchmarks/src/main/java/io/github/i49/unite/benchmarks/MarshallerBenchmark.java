@@ -0,0 +1,113 @@
+/* 
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.i49.unite.benchmarks;
+
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.i49.unite.api.base.ParameterSet;
+import io.github.i49.unite.api.tasks.Task;
+import io.github.i49.unite.api.tasks.TaskFactory;
+import io.github.i49.unite.core.storage.BinaryMarshaller;
+import io.github.i49.unite.core.storage.JsonBindingMarshaller;
+import io.github.i49.unite.core.workflow.PrimitiveParameterSet;
+import io.github.i49.unite.core.workflow.SimpleParameterSet;
+
+/**
+ * Round trips of the marshallers with the objects stored for each job.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MarshallerBenchmark {
+
+    private static final int NUMBER_COUNT = 1000;
+
+    private final BinaryMarshaller binaryMarshaller = BinaryMarshaller.getInstance();
+    private final JsonBindingMarshaller jsonMarshaller = JsonBindingMarshaller.getInstance();
+    
+    private ParameterSet parameters;
+    // many numbers exchanged by simulation jobs, in either implementation
+    private ParameterSet boxedNumbers;
+    private ParameterSet primitiveNumbers;
+    private Task task;
+    private String[] standardOutput;
+    
+    @Setup
+    public void setUp() {
+        SimpleParameterSet parameters = new SimpleParameterSet();
+        parameters.put("x", 1.5);
+        parameters.put("y", -2.5);
+        parameters.put("count", 42);
+        parameters.put("name", "sample");
+        parameters.put("path", Paths.get("work", "job1", "output.txt"));
+        parameters.put("numbers", Arrays.asList(1, 2, 3, 4, 5));
+        this.parameters = parameters;
+        this.boxedNumbers = new SimpleParameterSet();
+        this.primitiveNumbers = new PrimitiveParameterSet();
+        for (int i = 0; i < NUMBER_COUNT; i++) {
+            boxedNumbers.putDouble("value" + i, i * 0.5);
+            primitiveNumbers.putDouble("value" + i, i * 0.5);
+        }
+        this.task = TaskFactory.newInstance().createEchoTask("Hello world");
+        this.standardOutput = new String[] { "first line", "second line", "third line" };
+    }
+    
+    @Benchmark
+    public ParameterSet binaryParameterSet() {
+        byte[] content = binaryMarshaller.marshal(parameters);
+        return binaryMarshaller.unmarshal(content, ParameterSet.class);
+    }
+
+    @Benchmark
+    public ParameterSet binaryBoxedNumbers() {
+        byte[] content = binaryMarshaller.marshal(boxedNumbers);
+        return binaryMarshaller.unmarshal(content, ParameterSet.class);
+    }
+
+    @Benchmark
+    public ParameterSet binaryPrimitiveNumbers() {
+        byte[] content = binaryMarshaller.marshal(primitiveNumbers);
+        return binaryMarshaller.unmarshal(content, ParameterSet.class);
+    }
+
+    @Benchmark
+    public Task jsonTask() {
+        String content = jsonMarshaller.marshal(task);
+        return jsonMarshaller.unmarshal(content, task.getClass());
+    }
+
+    @Benchmark
+    public String[] jsonStandardOutput() {
+        String content = jsonMarshaller.marshal(standardOutput);
+        return jsonMarshaller.unmarshal(content, String[].class);
+    }
+}
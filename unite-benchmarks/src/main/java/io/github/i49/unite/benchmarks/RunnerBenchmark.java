@@ -0,0 +1,80 @@
+/* 
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.i49.unite.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.i49.unite.core.storage.WorkflowStorage;
+import io.github.i49.unite.core.storage.util.WorkflowStorageBuilder;
+import io.github.i49.unite.server.runner.SerialWorkflowRunner;
+import io.github.i49.unite.server.runner.WorkflowRunner;
+
+/**
+ * End-to-end throughput of the runner on in-process HSQLDB.
+ * Each invocation runs all jobs of a freshly added workflow.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RunnerBenchmark {
+
+    @Param({"INDEPENDENT", "CHAIN", "FAN_IN"})
+    Workflows shape;
+    
+    @Param({"100"})
+    int size;
+    
+    private WorkflowStorage storage;
+    private WorkflowRunner runner;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        storage = new WorkflowStorageBuilder().withDataSource(Databases.newDatabase()).build();
+        storage.format();
+        Path directory = Files.createTempDirectory("unite-benchmark");
+        runner = new SerialWorkflowRunner(storage, directory);
+    }
+    
+    @Setup(Level.Invocation)
+    public void submit() {
+        storage.clear();
+        storage.addWorkflow(shape.create(size));
+    }
+    
+    @Benchmark
+    public long runAll() {
+        return runner.runAll();
+    }
+}
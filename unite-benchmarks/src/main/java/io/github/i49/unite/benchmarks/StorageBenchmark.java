@@ -0,0 +1,175 @@
+/* 
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.i49.unite.benchmarks;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.i49.unite.api.workflow.Job;
+import io.github.i49.unite.api.workflow.JobStatus;
+import io.github.i49.unite.api.workflow.Workflow;
+import io.github.i49.unite.core.storage.InProcessReadyJobChannel;
+import io.github.i49.unite.core.storage.jdbc.ActiveWorkflowStorage;
+import io.github.i49.unite.core.storage.jdbc.RowMappers;
+import io.github.i49.unite.core.workflow.ManagedJob;
+
+/**
+ * Hot paths of the JDBC storage on in-process HSQLDB.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StorageBenchmark {
+
+    /**
+     * The storage connected to a database of its own.
+     */
+    @State(Scope.Thread)
+    public static class Database {
+        
+        Connection connection;
+        ActiveWorkflowStorage storage;
+        
+        @Setup(Level.Trial)
+        public void connect() throws SQLException {
+            DataSource dataSource = Databases.newDatabase();
+            connection = dataSource.getConnection();
+            storage = new ActiveWorkflowStorage(connection, InProcessReadyJobChannel.of(dataSource));
+            storage.format();
+        }
+        
+        @TearDown(Level.Trial)
+        public void disconnect() {
+            storage.close();
+        }
+    }
+    
+    /**
+     * The workflow to be added, created afresh for each invocation.
+     */
+    @State(Scope.Thread)
+    public static class Submission {
+        
+        @Param({"INDEPENDENT", "CHAIN", "FAN_OUT", "FAN_IN"})
+        Workflows shape;
+        
+        @Param({"10", "1000"})
+        int size;
+        
+        Workflow workflow;
+        
+        @Setup(Level.Iteration)
+        public void clear(Database database) {
+            database.storage.clear();
+        }
+        
+        @Setup(Level.Invocation)
+        public void create() {
+            workflow = shape.create(size);
+        }
+    }
+    
+    /**
+     * The database filled with READY jobs.
+     */
+    @State(Scope.Thread)
+    public static class Backlog {
+        
+        @Param({"1000", "100000"})
+        int backlog;
+        
+        @Setup(Level.Trial)
+        public void fill(Database database) {
+            for (int added = 0; added < backlog; added += 1000) {
+                database.storage.addWorkflow(Workflows.INDEPENDENT.create(Math.min(1000, backlog - added)));
+            }
+        }
+    }
+    
+    /**
+     * The rows of jobs to be mapped.
+     */
+    @State(Scope.Thread)
+    public static class Rows {
+
+        static final int ROWS = 1000;
+        
+        RowMappers mappers;
+        Statement statement;
+        ResultSet resultSet;
+        int row;
+        
+        @Setup(Level.Trial)
+        public void query(Database database) throws SQLException {
+            database.storage.clear();
+            database.storage.addWorkflow(Workflows.INDEPENDENT.create(ROWS));
+            mappers = new RowMappers(database.storage);
+            statement = database.connection.createStatement(
+                    ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY);
+            resultSet = statement.executeQuery("SELECT job_id, job_name, job_status, workflow_id FROM job");
+        }
+        
+        @TearDown(Level.Trial)
+        public void close() throws SQLException {
+            resultSet.close();
+            statement.close();
+        }
+        
+        ResultSet next() throws SQLException {
+            row = (row % ROWS) + 1;
+            resultSet.absolute(row);
+            return resultSet;
+        }
+    }
+    
+    @Benchmark
+    public Workflow addWorkflow(Database database, Submission submission) {
+        database.storage.addWorkflow(submission.workflow);
+        return submission.workflow;
+    }
+
+    @Benchmark
+    public Optional<Job> findFirstJobByStatus(Database database, Backlog backlog) {
+        return database.storage.findFirstJobByStatus(JobStatus.READY);
+    }
+
+    @Benchmark
+    public ManagedJob mapToJob(Rows rows) throws SQLException {
+        return rows.mappers.mapToJob(rows.next());
+    }
+}
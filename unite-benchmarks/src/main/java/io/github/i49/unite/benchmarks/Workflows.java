@@ -0,0 +1,83 @@
+/* 
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.i49.unite.benchmarks;
+
+import io.github.i49.unite.api.tasks.TaskFactory;
+import io.github.i49.unite.api.workflow.Job;
+import io.github.i49.unite.api.workflow.Workflow;
+import io.github.i49.unite.api.workflow.WorkflowBuilder;
+import io.github.i49.unite.api.workflow.WorkflowFactory;
+
+/**
+ * Shapes of workflows used by the benchmarks.
+ */
+public enum Workflows {
+    
+    /** Jobs without any dependencies. */
+    INDEPENDENT,
+    /** Jobs each of which depends on the previous one. */
+    CHAIN,
+    /** Jobs all of which depend on the single first job. */
+    FAN_OUT,
+    /** A single last job depending on all other jobs. */
+    FAN_IN
+    ;
+    
+    private static final WorkflowFactory workflowFactory = WorkflowFactory.newInstance();
+    private static final TaskFactory taskFactory = TaskFactory.newInstance();
+
+    /**
+     * Creates a workflow of this shape.
+     * 
+     * @param size the number of the jobs in the workflow.
+     * @return newly created workflow.
+     */
+    public Workflow create(int size) {
+        WorkflowBuilder builder = workflowFactory.createWorkflowBuilder(name());
+        Job first = createJob(0);
+        builder.jobs(first);
+        Job previous = first;
+        Job last = (this == FAN_IN) ? createJob(size - 1) : null;
+        for (int i = 1; i < size; i++) {
+            switch (this) {
+            case INDEPENDENT:
+                builder.jobs(createJob(i));
+                break;
+            case CHAIN: {
+                Job job = createJob(i);
+                builder.link(previous, job);
+                previous = job;
+                break;
+            }
+            case FAN_OUT:
+                builder.link(first, createJob(i));
+                break;
+            case FAN_IN:
+                builder.link((i == 1) ? first : createJob(i - 1), last);
+                break;
+            }
+        }
+        return builder.build();
+    }
+    
+    private static Job createJob(int index) {
+        return workflowFactory.createJobBuilder("job" + index)
+                .tasks(taskFactory.createEchoTask("Running job" + index))
+                .input("index", index)
+                .input("weight", 0.5 * index)
+                .build();
+    }
+}
@@ -18,9 +18,148 @@
 package io.github.i49.unite.api.base;
 
 import java.util.Map;
+import java.util.NoSuchElementException;
 
 /**
  * A set of parameters that will be read or written by a task.
+ * 
+ * <p>
+ * In addition to the methods of {@link Map}, the values of the primitive types 
+ * can be read and written with the typed accessors such as {@link #getDouble(String)}.
+ * The implementations may store such values without boxing them.
+ * </p>
  */
 public interface ParameterSet extends Map<String, Object> {
+    
+    /**
+     * Returns the value of the specified key as {@code int}.
+     * 
+     * @param key the key of the parameter.
+     * @return the value of the parameter.
+     * @throws NoSuchElementException if this set does not contain the key.
+     * @throws ClassCastException if the value is not an {@link Integer}.
+     * @throws NullPointerException if the value is {@code null}.
+     */
+    default int getInt(String key) {
+        return (Integer)ParameterSets.getExisting(this, key);
+    }
+
+    /**
+     * Returns the value of the specified key as {@code long}.
+     * 
+     * @param key the key of the parameter.
+     * @return the value of the parameter, widened if it is an {@link Integer}.
+     * @throws NoSuchElementException if this set does not contain the key.
+     * @throws ClassCastException if the value is neither a {@link Long} nor an {@link Integer}.
+     * @throws NullPointerException if the value is {@code null}.
+     */
+    default long getLong(String key) {
+        Object value = ParameterSets.getExisting(this, key);
+        if (value instanceof Integer) {
+            return (Integer)value;
+        }
+        return (Long)value;
+    }
+
+    /**
+     * Returns the value of the specified key as {@code double}.
+     * 
+     * @param key the key of the parameter.
+     * @return the value of the parameter, converted by {@link Number#doubleValue()}.
+     * @throws NoSuchElementException if this set does not contain the key.
+     * @throws ClassCastException if the value is not a {@link Number}.
+     * @throws NullPointerException if the value is {@code null}.
+     */
+    default double getDouble(String key) {
+        return ((Number)ParameterSets.getExisting(this, key)).doubleValue();
+    }
+
+    /**
+     * Returns the value of the specified key as {@code boolean}.
+     * 
+     * @param key the key of the parameter.
+     * @return the value of the parameter.
+     * @throws NoSuchElementException if this set does not contain the key.
+     * @throws ClassCastException if the value is not a {@link Boolean}.
+     * @throws NullPointerException if the value is {@code null}.
+     */
+    default boolean getBoolean(String key) {
+        return (Boolean)ParameterSets.getExisting(this, key);
+    }
+    
+    /**
+     * Returns the array of the specified key without copying it.
+     * 
+     * @param key the key of the parameter.
+     * @return the array of the parameter, can be {@code null}.
+     * @throws NoSuchElementException if this set does not contain the key.
+     * @throws ClassCastException if the value is not an array of {@code double}.
+     */
+    default double[] getDoubleArray(String key) {
+        return (double[])ParameterSets.getExisting(this, key);
+    }
+
+    /**
+     * Returns the array of the specified key without copying it.
+     * 
+     * @param key the key of the parameter.
+     * @return the array of the parameter, can be {@code null}.
+     * @throws NoSuchElementException if this set does not contain the key.
+     * @throws ClassCastException if the value is not an array of {@code long}.
+     */
+    default long[] getLongArray(String key) {
+        return (long[])ParameterSets.getExisting(this, key);
+    }
+
+    /**
+     * Returns the array of the specified key without copying it.
+     * 
+     * @param key the key of the parameter.
+     * @return the array of the parameter, can be {@code null}.
+     * @throws NoSuchElementException if this set does not contain the key.
+     * @throws ClassCastException if the value is not an array of {@code int}.
+     */
+    default int[] getIntArray(String key) {
+        return (int[])ParameterSets.getExisting(this, key);
+    }
+    
+    /**
+     * Associates the {@code int} value with the specified key.
+     * 
+     * @param key the key of the parameter.
+     * @param value the value of the parameter.
+     */
+    default void putInt(String key, int value) {
+        put(key, value);
+    }
+
+    /**
+     * Associates the {@code long} value with the specified key.
+     * 
+     * @param key the key of the parameter.
+     * @param value the value of the parameter.
+     */
+    default void putLong(String key, long value) {
+        put(key, value);
+    }
+
+    /**
+     * Associates the {@code double} value with the specified key.
+     * 
+     * @param key the key of the parameter.
+     * @param value the value of the parameter.
+     */
+    default void putDouble(String key, double value) {
+        put(key, value);
+    }
+
+    /**
+     * Associates the {@code boolean} value with the specified key.
+     * 
+     * @param key the key of the parameter.
+     * @param value the value of the parameter.
+     */
+    default void putBoolean(String key, boolean value) {
+        put(key, value);
+    }
 }
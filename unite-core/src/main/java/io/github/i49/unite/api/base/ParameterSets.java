@@ -0,0 +1,43 @@
+/* 
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.i49.unite.api.base;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Helper methods for the default methods of {@link ParameterSet}.
+ */
+final class ParameterSets {
+
+    private ParameterSets() {
+    }
+    
+    /**
+     * Returns the value of the key which must exist in the parameter set.
+     * 
+     * @param parameters the parameter set.
+     * @param key the key of the parameter.
+     * @return the value of the parameter, can be {@code null}.
+     * @throws NoSuchElementException if the parameter set does not contain the key.
+     */
+    static Object getExisting(ParameterSet parameters, String key) {
+        Object value = parameters.get(key);
+        if (value == null && !parameters.containsKey(key)) {
+            throw new NoSuchElementException(key);
+        }
+        return value;
+    }
+}
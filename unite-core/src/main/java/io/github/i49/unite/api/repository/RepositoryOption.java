@@ -23,5 +23,12 @@ package io.github.i49.unite.api.repository;
  */
 public enum RepositoryOption {
     /** Formats the repository. */
-    FORMAT
+    FORMAT,
+    /** 
+     * Stores the output parameters of the jobs also entry by entry,
+     * so that the links can read only the entries their mappers need,
+     * and the jobs can be found by their outputs.
+     * The runners sharing the repository should be built with the parameter index as well.
+     */
+    PARAMETER_INDEX
 }
@@ -18,7 +18,10 @@ package io.github.i49.unite.api.repository;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.Set;
 
+import io.github.i49.unite.api.base.ParameterSet;
+import io.github.i49.unite.api.base.WorkflowException;
 import io.github.i49.unite.api.workflow.Job;
 import io.github.i49.unite.api.workflow.JobStatus;
 import io.github.i49.unite.api.workflow.Workflow;
@@ -26,7 +29,7 @@ import io.github.i49.unite.api.workflow.Workflow;
 /**
  * A repository that manages workflows to execute.
  */
-public interface WorkflowRepository {
+public interface WorkflowRepository extends AutoCloseable {
     
     /**
      * Clears all entries in this repository.
@@ -76,6 +79,35 @@ public interface WorkflowRepository {
 
     Optional<Job> findFirstJobByStatus(JobStatus status);
     
+    /**
+     * Finds the jobs whose output has a number of the specified key within the range.
+     * For example, the jobs whose output "energy" is less than {@code x} are found by
+     * {@code findJobsByOutputRange("energy", Double.NEGATIVE_INFINITY, x)}.
+     * Booleans in the outputs are compared as 1 or 0.
+     * 
+     * @param key the key of the entry in the outputs.
+     * @param minimum the lower bound of the number, inclusive.
+     * @param maximum the upper bound of the number, exclusive.
+     * @return the list of the jobs found in the order of their identifiers, never be {@code null}.
+     * @throws NullPointerException if given {@code key} is {@code null}.
+     * @throws WorkflowException if this repository was built without {@link RepositoryOption#PARAMETER_INDEX}.
+     */
+    List<Job> findJobsByOutputRange(String key, double minimum, double maximum);
+    
+    /**
+     * Finds the jobs whose output has the text of the specified key.
+     * The texts are compared case-sensitively on every database.
+     * Enum constants in the outputs are compared by their names.
+     * Texts longer than 200 characters are not indexed and never found.
+     * 
+     * @param key the key of the entry in the outputs.
+     * @param value the text to find.
+     * @return the list of the jobs found in the order of their identifiers, never be {@code null}.
+     * @throws NullPointerException if any of given parameters is {@code null}.
+     * @throws WorkflowException if this repository was built without {@link RepositoryOption#PARAMETER_INDEX}.
+     */
+    List<Job> findJobsByOutputText(String key, String value);
+    
     /**
      * Returns the status of the job specified by the ID.
      * 
@@ -86,4 +118,23 @@ public interface WorkflowRepository {
     JobStatus getJobStatus(long id);
 
     Workflow getWorkflow(long id);
+    
+    /**
+     * Returns the entries of the specified keys in the output of the job,
+     * without reading the whole output.
+     * 
+     * @param id the identifier of the job.
+     * @param keys the keys of the entries to read.
+     * @return the entries found in the output of the job, never be {@code null}.
+     * @throws NullPointerException if given {@code keys} is {@code null}.
+     */
+    ParameterSet getOutputParameters(long id, Set<String> keys);
+    
+    /**
+     * Closes this repository.
+     * The connection pool created by the builder of this repository is closed,
+     * while the data source given to the builder is left open.
+     */
+    @Override
+    void close();
 }
@@ -26,5 +26,7 @@ public enum JobStatus {
     WAITING, 
     READY, 
     RUNNING, 
-    COMPLETED
+    COMPLETED,
+    /** One of the tasks has failed. */
+    FAILED
 }
@@ -41,10 +41,31 @@ public enum Message implements MessageProvider {
     
     STATEMENT_IS_UNDEFINED,
     OBJECT_IS_NOT_SERIALIZABLE,
+    OBJECT_CANNOT_BE_DESERIALIZED,
+    BINARY_FORMAT_IS_UNKNOWN,
+    BINARY_TAG_IS_UNKNOWN,
+    BINARY_CONTENT_IS_MALFORMED,
+    MAPPER_CANNOT_BE_RESOLVED,
     REPOSITORY_ACCESS_ERROR_OCCURRED,
     REPOSITORY_ACCESS_ERROR_WAS_IGNORED,
     REPOSITORY_PRODUCT_UNSUPPORTED,
     SQL_SCRIPT_FAILED,
+    POOL_SIZE_IS_INVALID,
+    CONNECTION_POOL_IS_CLOSED,
+    CONNECTION_POOL_IS_EXHAUSTED,
+    CONNECTION_IS_CLOSED,
+    GENERATED_KEYS_ARE_MISSING,
+    READY_JOBS_CANNOT_BE_NOTIFIED,
+    READY_JOBS_CANNOT_BE_LISTENED,
+    READY_JOB_LISTENER_FAILED,
+    PARAMETER_INDEX_IS_DISABLED,
+
+    /* tasks */
+    
+    PROCESS_CANNOT_BE_STARTED,
+    PROCESS_WAS_INTERRUPTED,
+    PROCESS_CANNOT_BE_WATCHED,
+    SCRIPT_EXITED_ABNORMALLY,
 
     /* others */
     
@@ -21,7 +21,9 @@ import static io.github.i49.unite.core.common.Preconditions.checkRealType;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
+import io.github.i49.unite.api.base.ParameterSet;
 import io.github.i49.unite.api.repository.WorkflowRepository;
 import io.github.i49.unite.api.workflow.Job;
 import io.github.i49.unite.api.workflow.JobStatus;
@@ -38,9 +40,22 @@ public class DefaultWorkflowRepository implements WorkflowRepository {
 
     // Underlying storage object.
     private final WorkflowStorage storage;
+    private final boolean ownsStorage;
     
     public DefaultWorkflowRepository(WorkflowStorage storage) {
+        this(storage, true);
+    }
+    
+    /**
+     * Constructs this repository.
+     * 
+     * @param storage the storage of the workflows.
+     * @param ownsStorage {@code true} if the storage should be closed along with this repository,
+     *                    or {@code false} if the storage is shared with others and closed by the caller.
+     */
+    public DefaultWorkflowRepository(WorkflowStorage storage, boolean ownsStorage) {
         this.storage = storage;
+        this.ownsStorage = ownsStorage;
     }
 
     @Override
@@ -88,6 +103,19 @@ public class DefaultWorkflowRepository implements WorkflowRepository {
         return storage.findFirstJobByStatus(status);
     }
 
+    @Override
+    public List<Job> findJobsByOutputRange(String key, double minimum, double maximum) {
+        checkNotNull(key, "key");
+        return storage.findJobsByOutputRange(key, minimum, maximum);
+    }
+
+    @Override
+    public List<Job> findJobsByOutputText(String key, String value) {
+        checkNotNull(key, "key");
+        checkNotNull(value, "value");
+        return storage.findJobsByOutputText(key, value);
+    }
+
     @Override
     public JobStatus getJobStatus(long id) {
         return storage.getJobStatus(id);
@@ -97,4 +125,17 @@ public class DefaultWorkflowRepository implements WorkflowRepository {
     public Workflow getWorkflow(long id) {
         return storage.getWorkflow(id);
     }
+
+    @Override
+    public ParameterSet getOutputParameters(long id, Set<String> keys) {
+        checkNotNull(keys, "keys");
+        return storage.getOutputParameters(id, keys);
+    }
+
+    @Override
+    public void close() {
+        if (ownsStorage) {
+            storage.close();
+        }
+    }
 }
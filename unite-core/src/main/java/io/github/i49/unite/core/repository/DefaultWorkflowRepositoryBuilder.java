@@ -37,6 +37,7 @@ public class DefaultWorkflowRepositoryBuilder implements WorkflowRepositoryBuild
     private final WorkflowStorageBuilder storageBuilder = new WorkflowStorageBuilder();
     
     private final Set<RepositoryOption> options = EnumSet.noneOf(RepositoryOption.class);
+    private WorkflowStorage storage;
     
     @Override
     public WorkflowRepositoryBuilder withDataSource(DataSource dataSource) {
@@ -67,12 +68,31 @@ public class DefaultWorkflowRepositoryBuilder implements WorkflowRepositoryBuild
         return this;
     }
     
+    /**
+     * Specifies the storage to be shared with other repositories or runners, 
+     * for example an {@code InMemoryWorkflowStorage} of an embedded application.
+     * The data source, the URL, the credential and {@link RepositoryOption#PARAMETER_INDEX} are ignored,
+     * and the storage is not closed by the repository built.
+     * 
+     * @param storage the storage of the workflows.
+     * @return this builder.
+     */
+    public DefaultWorkflowRepositoryBuilder withStorage(WorkflowStorage storage) {
+        checkNotNull(storage, "storage");
+        this.storage = storage;
+        return this;
+    }
+    
     @Override
     public WorkflowRepository build() {
-        WorkflowStorage storage = storageBuilder.build();
+        if (options.contains(RepositoryOption.PARAMETER_INDEX)) {
+            storageBuilder.withParameterIndex();
+        }
+        boolean ownsStorage = (this.storage == null);
+        WorkflowStorage storage = ownsStorage ? storageBuilder.build() : this.storage;
         if (options.contains(RepositoryOption.FORMAT)) {
             storage.format();
         }
-        return new DefaultWorkflowRepository(storage);
+        return new DefaultWorkflowRepository(storage, ownsStorage);
     }
 }
@@ -0,0 +1,64 @@
+/* 
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.i49.unite.core.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Codec which encodes objects into a binary format.
+ * 
+ * <p>
+ * The codecs are used by {@link BinaryMarshaller}, 
+ * which writes the format identifier of the codec at the head of the content
+ * and selects the codec by the identifier when the content is read.
+ * Additional codecs can be provided as services with {@link java.util.ServiceLoader}, 
+ * and they take precedence over the built-in codecs.
+ * </p>
+ */
+public interface BinaryCodec {
+
+    /**
+     * Returns the identifier of the format produced by this codec.
+     * The identifier must be unique among all codecs, 
+     * and should be changed when the format is changed incompatibly.
+     * 
+     * @return the identifier of the format, between 1 and 127 inclusive.
+     */
+    byte getFormat();
+    
+    /**
+     * Encodes the given object.
+     * 
+     * @param object the object to encode, never be {@code null}.
+     * @param out the stream to which the encoded object will be written.
+     * @return {@code true} if the object was encoded, 
+     *         {@code false} if this codec does not support the object,
+     *         in which case anything written to the stream is discarded.
+     * @throws IOException if an I/O error has occurred.
+     */
+    boolean encode(Object object, OutputStream out) throws IOException;
+    
+    /**
+     * Decodes the object.
+     * 
+     * @param in the stream from which the encoded object will be read.
+     * @return the decoded object.
+     * @throws IOException if an I/O error has occurred or the content is malformed.
+     */
+    Object decode(InputStream in) throws IOException;
+}
@@ -17,29 +17,53 @@
  */
 package io.github.i49.unite.core.storage;
 
-import static io.github.i49.unite.core.message.Message.OBJECT_IS_NOT_SERIALIZABLE;
+import static io.github.i49.unite.core.message.Message.*;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.NotSerializableException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ServiceLoader;
 
 import io.github.i49.unite.api.base.WorkflowException;
 
 /**
- * A binary marshaller implemented with built-in serialization provided by Java language.
+ * A binary marshaller which delegates to pluggable {@link BinaryCodec}s.
+ * 
+ * <p>
+ * The marshalled content starts with a single byte identifying the format,
+ * followed by the content produced by the codec of the format.
+ * When marshalling, the codecs are tried in order and the first one supporting the object is used.
+ * The codecs provided as services come first, then the compact tagged codec, 
+ * and finally the codec with Java serialization which supports any serializable objects.
+ * The content written by earlier versions, which is a bare Java serialization stream
+ * without the format identifier, is still accepted.
+ * </p>
  */
 public class BinaryMarshaller implements Marshaller<byte[]> {
 
-    private static final BinaryMarshaller singleton = new BinaryMarshaller();
+    /** The first byte of Java serialization stream, never used as format identifier. */
+    private static final byte SERIALIZATION_MAGIC = (byte)0xAC;
+    
+    private static final BinaryMarshaller singleton = new BinaryMarshaller(loadCodecs());
+    
+    private final List<BinaryCodec> codecs;
+    private final BinaryCodec[] codecsByFormat;
     
     public static BinaryMarshaller getInstance() {
         return singleton;
     }
     
-    private BinaryMarshaller() {
+    private BinaryMarshaller(List<BinaryCodec> codecs) {
+        this.codecs = codecs;
+        this.codecsByFormat = new BinaryCodec[128];
+        for (BinaryCodec codec: codecs) {
+            byte format = codec.getFormat();
+            if (format > 0 && codecsByFormat[format] == null) {
+                codecsByFormat[format] = codec;
+            }
+        }
     }
     
     @Override
@@ -47,35 +71,55 @@ public class BinaryMarshaller implements Marshaller<byte[]> {
         if (object == null) {
             return null;
         }
-        byte[] bytes = null;
-        try (ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
-             ObjectOutputStream objectStream = new ObjectOutputStream(byteStream)) {
-            objectStream.writeObject(object);
-            bytes = byteStream.toByteArray();
-        } catch (NotSerializableException e) {
-            String className = object.getClass().getName();
-            throw new WorkflowException(OBJECT_IS_NOT_SERIALIZABLE.with(className), e);
+        ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
+        try {
+            for (BinaryCodec codec: codecs) {
+                byteStream.reset();
+                byteStream.write(codec.getFormat());
+                if (codec.encode(object, byteStream)) {
+                    return byteStream.toByteArray();
+                }
+            }
         } catch (IOException e) {
             // never reach here
         }
-        return bytes;
+        String className = object.getClass().getName();
+        throw new WorkflowException(OBJECT_IS_NOT_SERIALIZABLE.with(className));
     }
 
     @Override
     public <T> T unmarshal(byte[] content, Class<T> type) {
         if (content == null) {
             return null;
+        } else if (content.length == 0) {
+            throw new WorkflowException(OBJECT_CANNOT_BE_DESERIALIZED.toString());
         }
-        Object object = null;
-        try (ByteArrayInputStream byteStream = new ByteArrayInputStream(content);
-             ObjectInputStream objectStream = new ObjectInputStream(byteStream)) {
-             object = objectStream.readObject();    
-        } catch (ClassNotFoundException e) {
-            // TODO:
-            throw new WorkflowException("", e);
+        try {
+            ByteArrayInputStream byteStream = new ByteArrayInputStream(content);
+            BinaryCodec codec;
+            byte format = content[0];
+            if (format == SERIALIZATION_MAGIC) {
+                codec = new SerializationCodec();
+            } else {
+                byteStream.skip(1);
+                codec = (format > 0) ? codecsByFormat[format] : null;
+                if (codec == null) {
+                    throw new WorkflowException(BINARY_FORMAT_IS_UNKNOWN.with(format));
+                }
+            }
+            return type.cast(codec.decode(byteStream));
         } catch (IOException e) {
-            // never reach here
+            throw new WorkflowException(OBJECT_CANNOT_BE_DESERIALIZED.toString(), e);
+        }
+    }
+    
+    private static List<BinaryCodec> loadCodecs() {
+        List<BinaryCodec> codecs = new ArrayList<>();
+        for (BinaryCodec codec: ServiceLoader.load(BinaryCodec.class)) {
+            codecs.add(codec);
         }
-        return type.cast(object);
+        codecs.add(new TaggedBinaryCodec());
+        codecs.add(new SerializationCodec());
+        return codecs;
     }
 }
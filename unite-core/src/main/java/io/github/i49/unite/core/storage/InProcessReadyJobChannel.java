@@ -0,0 +1,69 @@
+/* 
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.i49.unite.core.storage;
+
+import static io.github.i49.unite.core.message.Message.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.sql.DataSource;
+
+/**
+ * The channel which delivers the events to the listeners in the current process.
+ */
+public class InProcessReadyJobChannel implements ReadyJobChannel {
+
+    private static final Logger log = Logger.getLogger(InProcessReadyJobChannel.class.getName());
+
+    private static final Map<DataSource, InProcessReadyJobChannel> channels = new WeakHashMap<>();
+    
+    private final List<ReadyJobListener> listeners = new CopyOnWriteArrayList<>();
+    
+    /**
+     * Returns the channel shared by all storages on the given data source,
+     * so that jobs added through a repository wake up the runners in the same process.
+     * 
+     * @param dataSource the data source of the storages.
+     * @return the channel for the data source.
+     */
+    public static InProcessReadyJobChannel of(DataSource dataSource) {
+        synchronized (channels) {
+            return channels.computeIfAbsent(dataSource, key->new InProcessReadyJobChannel());
+        }
+    }
+    
+    @Override
+    public void publish() {
+        for (ReadyJobListener listener: listeners) {
+            try {
+                listener.jobsBecameReady();
+            } catch (RuntimeException e) {
+                log.log(Level.WARNING, READY_JOB_LISTENER_FAILED.toString(), e);
+            }
+        }
+    }
+
+    @Override
+    public Subscription subscribe(ReadyJobListener listener) {
+        listeners.add(listener);
+        return ()->listeners.remove(listener);
+    }
+}
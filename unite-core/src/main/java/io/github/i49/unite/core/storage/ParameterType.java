@@ -0,0 +1,100 @@
+/* 
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.i49.unite.core.storage;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * Type of the parameter values, by which the values are indexed in the storage.
+ */
+public enum ParameterType {
+    /** {@code null}. */
+    NULL,
+    /** {@link Boolean}, which is indexed as 1 or 0. */
+    BOOLEAN,
+    /** Integral numbers such as {@link Integer} and {@link Long}. */
+    INTEGER,
+    /** Other numbers such as {@link Double} and {@link BigDecimal}. */
+    DECIMAL,
+    /** {@link CharSequence}, {@link Character} and enum constants. */
+    TEXT,
+    /** Any other objects, which are not indexed. */
+    OBJECT
+    ;
+    
+    /** The maximum length of the texts indexed. */
+    public static final int MAXIMUM_TEXT_LENGTH = 200;
+    
+    /**
+     * Returns the type of the value.
+     * 
+     * @param value the value of the parameter, can be {@code null}.
+     * @return the type of the value, never be {@code null}.
+     */
+    public static ParameterType of(Object value) {
+        if (value == null) {
+            return NULL;
+        } else if (value instanceof Boolean) {
+            return BOOLEAN;
+        } else if (value instanceof Long || value instanceof Integer || value instanceof Short 
+                || value instanceof Byte || value instanceof BigInteger) {
+            return INTEGER;
+        } else if (value instanceof Number) {
+            return DECIMAL;
+        } else if (value instanceof CharSequence || value instanceof Character || value instanceof Enum) {
+            return TEXT;
+        } else {
+            return OBJECT;
+        }
+    }
+    
+    /**
+     * Returns the number by which the value is indexed.
+     * Large integers may lose their precision.
+     * 
+     * @param value the value of the parameter, can be {@code null}.
+     * @return the number of the value, 
+     *         or {@code null} if the value is neither a finite number nor a boolean.
+     */
+    public static Double toNumber(Object value) {
+        switch (of(value)) {
+        case BOOLEAN:
+            return ((Boolean)value) ? 1.0 : 0.0;
+        case INTEGER:
+        case DECIMAL:
+            double number = ((Number)value).doubleValue();
+            return Double.isFinite(number) ? number : null;
+        default:
+            return null;
+        }
+    }
+    
+    /**
+     * Returns the text by which the value is indexed.
+     * 
+     * @param value the value of the parameter, can be {@code null}.
+     * @return the text of the value, 
+     *         or {@code null} if the value is not a text or longer than {@link #MAXIMUM_TEXT_LENGTH}.
+     */
+    public static String toText(Object value) {
+        if (of(value) != TEXT) {
+            return null;
+        }
+        String text = (value instanceof Enum) ? ((Enum<?>)value).name() : value.toString();
+        return (text.length() <= MAXIMUM_TEXT_LENGTH) ? text : null;
+    }
+}
@@ -0,0 +1,55 @@
+/* 
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.i49.unite.core.storage;
+
+/**
+ * Channel delivering the events that jobs have become READY to the subscribers.
+ * 
+ * <p>
+ * The storage publishes an event to its channel whenever it has made jobs READY,
+ * that is, when a workflow is added and when successors of a completed job are promoted.
+ * {@link InProcessReadyJobChannel} delivers the events only within the current process.
+ * Other implementations may deliver them across processes, 
+ * for example by writing them to a table polled by the subscribers.
+ * </p>
+ */
+public interface ReadyJobChannel {
+
+    /**
+     * Publishes the event that jobs have become READY.
+     */
+    void publish();
+    
+    /**
+     * Subscribes to the events.
+     * 
+     * @param listener the listener to be notified of the events.
+     * @return the subscription, which must be closed when the listener is no longer needed.
+     */
+    Subscription subscribe(ReadyJobListener listener);
+    
+    /**
+     * Subscription to a channel.
+     */
+    interface Subscription extends AutoCloseable {
+        
+        /**
+         * Cancels this subscription.
+         */
+        @Override
+        void close();
+    }
+}
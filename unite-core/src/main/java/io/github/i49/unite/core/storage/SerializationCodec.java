@@ -0,0 +1,61 @@
+/* 
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.i49.unite.core.storage;
+
+import static io.github.i49.unite.core.message.Message.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.NotSerializableException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+
+import io.github.i49.unite.api.base.WorkflowException;
+
+/**
+ * A binary codec implemented with built-in serialization provided by Java language.
+ * This codec supports any serializable objects.
+ */
+class SerializationCodec implements BinaryCodec {
+
+    static final byte FORMAT = 2;
+    
+    @Override
+    public byte getFormat() {
+        return FORMAT;
+    }
+
+    @Override
+    public boolean encode(Object object, OutputStream out) throws IOException {
+        try (ObjectOutputStream objectStream = new ObjectOutputStream(out)) {
+            objectStream.writeObject(object);
+        } catch (NotSerializableException e) {
+            String className = object.getClass().getName();
+            throw new WorkflowException(OBJECT_IS_NOT_SERIALIZABLE.with(className), e);
+        }
+        return true;
+    }
+
+    @Override
+    public Object decode(InputStream in) throws IOException {
+        try (ObjectInputStream objectStream = new ObjectInputStream(in)) {
+            return objectStream.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new WorkflowException(OBJECT_CANNOT_BE_DESERIALIZED.toString(), e);
+        }
+    }
+}
@@ -0,0 +1,431 @@
+/* 
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.i49.unite.core.storage;
+
+import static io.github.i49.unite.core.message.Message.*;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StreamCorruptedException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.github.i49.unite.core.workflow.PrimitiveParameterSet;
+import io.github.i49.unite.core.workflow.SimpleParameterSet;
+
+/**
+ * A compact binary codec for the values which usually appear in parameter sets.
+ * 
+ * <p>
+ * Each value is written as a single byte tag followed by its payload. 
+ * Integral numbers and lengths are written as variable-length integers.
+ * The supported values are the boxed primitives, strings, paths, 
+ * the arrays of them, and {@link ArrayList}, {@link HashMap} and {@link LinkedHashMap}
+ * containing supported values only.
+ * Lists are decoded as {@link ArrayList}, and maps as {@link LinkedHashMap}.
+ * Other lists and maps, including the wrappers of {@link Collections}, are unsupported,
+ * so that they are serialized with their own types and behaviors.
+ * The primitive values of {@link PrimitiveParameterSet} are written and read without boxing.
+ * Any other value makes the whole object unsupported by this codec.
+ * </p>
+ */
+class TaggedBinaryCodec implements BinaryCodec {
+
+    static final byte FORMAT = 1;
+    
+    private static final int NULL = 0;
+    private static final int FALSE = 1;
+    private static final int TRUE = 2;
+    private static final int BYTE = 3;
+    private static final int SHORT = 4;
+    private static final int INT = 5;
+    private static final int LONG = 6;
+    private static final int FLOAT = 7;
+    private static final int DOUBLE = 8;
+    private static final int CHAR = 9;
+    private static final int STRING = 10;
+    private static final int PATH = 11;
+    private static final int BYTE_ARRAY = 12;
+    private static final int INT_ARRAY = 13;
+    private static final int LONG_ARRAY = 14;
+    private static final int DOUBLE_ARRAY = 15;
+    private static final int STRING_ARRAY = 16;
+    private static final int OBJECT_ARRAY = 17;
+    private static final int LIST = 18;
+    private static final int MAP = 19;
+    private static final int PARAMETER_SET = 20;
+    private static final int PRIMITIVE_PARAMETER_SET = 21;
+    
+    @Override
+    public byte getFormat() {
+        return FORMAT;
+    }
+
+    @Override
+    public boolean encode(Object object, OutputStream out) throws IOException {
+        return write(object, new DataOutputStream(out));
+    }
+
+    @Override
+    public Object decode(InputStream in) throws IOException {
+        return read(new DataInputStream(in));
+    }
+    
+    private static boolean write(Object value, DataOutputStream out) throws IOException {
+        if (value == null) {
+            out.writeByte(NULL);
+        } else if (value instanceof Boolean) {
+            out.writeByte((Boolean)value ? TRUE : FALSE);
+        } else if (value instanceof Byte) {
+            out.writeByte(BYTE);
+            out.writeByte((Byte)value);
+        } else if (value instanceof Short) {
+            out.writeByte(SHORT);
+            writeVarLong(out, (Short)value);
+        } else if (value instanceof Integer) {
+            out.writeByte(INT);
+            writeVarLong(out, (Integer)value);
+        } else if (value instanceof Long) {
+            out.writeByte(LONG);
+            writeVarLong(out, (Long)value);
+        } else if (value instanceof Float) {
+            out.writeByte(FLOAT);
+            out.writeFloat((Float)value);
+        } else if (value instanceof Double) {
+            out.writeByte(DOUBLE);
+            out.writeDouble((Double)value);
+        } else if (value instanceof Character) {
+            out.writeByte(CHAR);
+            out.writeChar((Character)value);
+        } else if (value instanceof String) {
+            out.writeByte(STRING);
+            writeString(out, (String)value);
+        } else if (value instanceof Path) {
+            Path path = (Path)value;
+            if (path.getFileSystem() != FileSystems.getDefault()) {
+                return false;
+            }
+            out.writeByte(PATH);
+            writeString(out, path.toString());
+        } else if (value instanceof byte[]) {
+            byte[] array = (byte[])value;
+            out.writeByte(BYTE_ARRAY);
+            writeLength(out, array.length);
+            out.write(array);
+        } else if (value instanceof int[]) {
+            int[] array = (int[])value;
+            out.writeByte(INT_ARRAY);
+            writeLength(out, array.length);
+            for (int item: array) {
+                writeVarLong(out, item);
+            }
+        } else if (value instanceof long[]) {
+            long[] array = (long[])value;
+            out.writeByte(LONG_ARRAY);
+            writeLength(out, array.length);
+            for (long item: array) {
+                writeVarLong(out, item);
+            }
+        } else if (value instanceof double[]) {
+            double[] array = (double[])value;
+            out.writeByte(DOUBLE_ARRAY);
+            writeLength(out, array.length);
+            for (double item: array) {
+                out.writeDouble(item);
+            }
+        } else if (value.getClass() == String[].class) {
+            String[] array = (String[])value;
+            out.writeByte(STRING_ARRAY);
+            writeLength(out, array.length);
+            for (String item: array) {
+                if (!write(item, out)) {
+                    return false;
+                }
+            }
+        } else if (value.getClass() == Object[].class) {
+            Object[] array = (Object[])value;
+            out.writeByte(OBJECT_ARRAY);
+            writeLength(out, array.length);
+            for (Object item: array) {
+                if (!write(item, out)) {
+                    return false;
+                }
+            }
+        } else if (value.getClass() == PrimitiveParameterSet.class) {
+            out.writeByte(PRIMITIVE_PARAMETER_SET);
+            return writePrimitiveEntries((PrimitiveParameterSet)value, out);
+        } else if (value.getClass() == SimpleParameterSet.class) {
+            out.writeByte(PARAMETER_SET);
+            return writeEntries((Map<?, ?>)value, out);
+        } else if (value.getClass() == ArrayList.class) {
+            out.writeByte(LIST);
+            return writeItems((Collection<?>)value, out);
+        } else if (value.getClass() == HashMap.class || value.getClass() == LinkedHashMap.class) {
+            out.writeByte(MAP);
+            return writeEntries((Map<?, ?>)value, out);
+        } else {
+            return false;
+        }
+        return true;
+    }
+    
+    private static boolean writeItems(Collection<?> items, DataOutputStream out) throws IOException {
+        writeLength(out, items.size());
+        for (Object item: items) {
+            if (!write(item, out)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean writeEntries(Map<?, ?> map, DataOutputStream out) throws IOException {
+        writeLength(out, map.size());
+        for (Map.Entry<?, ?> entry: map.entrySet()) {
+            if (!write(entry.getKey(), out) || !write(entry.getValue(), out)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Writes the entries of the parameter set. 
+     * The keys are written without tags, and the primitive values are written without boxing.
+     */
+    private static boolean writePrimitiveEntries(PrimitiveParameterSet parameters, DataOutputStream out) throws IOException {
+        final int size = parameters.size();
+        writeLength(out, size);
+        for (int i = 0; i < size; i++) {
+            String key = parameters.getKeyAt(i);
+            if (key == null) {
+                return false;
+            }
+            writeString(out, key);
+            switch (parameters.getTypeAt(i)) {
+            case INT:
+                out.writeByte(INT);
+                writeVarLong(out, parameters.getIntAt(i));
+                break;
+            case LONG:
+                out.writeByte(LONG);
+                writeVarLong(out, parameters.getLongAt(i));
+                break;
+            case DOUBLE:
+                out.writeByte(DOUBLE);
+                out.writeDouble(parameters.getDoubleAt(i));
+                break;
+            case BOOLEAN:
+                out.writeByte(parameters.getBooleanAt(i) ? TRUE : FALSE);
+                break;
+            default:
+                if (!write(parameters.getObjectAt(i), out)) {
+                    return false;
+                }
+                break;
+            }
+        }
+        return true;
+    }
+    
+    private static Object read(DataInputStream in) throws IOException {
+        return read(in, in.readUnsignedByte());
+    }
+    
+    private static Object read(DataInputStream in, int tag) throws IOException {
+        switch (tag) {
+        case NULL:
+            return null;
+        case FALSE:
+            return Boolean.FALSE;
+        case TRUE:
+            return Boolean.TRUE;
+        case BYTE:
+            return in.readByte();
+        case SHORT:
+            return (short)readVarLong(in);
+        case INT:
+            return (int)readVarLong(in);
+        case LONG:
+            return readVarLong(in);
+        case FLOAT:
+            return in.readFloat();
+        case DOUBLE:
+            return in.readDouble();
+        case CHAR:
+            return in.readChar();
+        case STRING:
+            return readString(in);
+        case PATH:
+            return Paths.get(readString(in));
+        case BYTE_ARRAY: {
+            byte[] array = new byte[readLength(in)];
+            in.readFully(array);
+            return array;
+        }
+        case INT_ARRAY: {
+            int[] array = new int[readLength(in)];
+            for (int i = 0; i < array.length; i++) {
+                array[i] = (int)readVarLong(in);
+            }
+            return array;
+        }
+        case LONG_ARRAY: {
+            long[] array = new long[readLength(in)];
+            for (int i = 0; i < array.length; i++) {
+                array[i] = readVarLong(in);
+            }
+            return array;
+        }
+        case DOUBLE_ARRAY: {
+            double[] array = new double[readLength(in)];
+            for (int i = 0; i < array.length; i++) {
+                array[i] = in.readDouble();
+            }
+            return array;
+        }
+        case STRING_ARRAY: {
+            String[] array = new String[readLength(in)];
+            for (int i = 0; i < array.length; i++) {
+                array[i] = (String)read(in);
+            }
+            return array;
+        }
+        case OBJECT_ARRAY: {
+            Object[] array = new Object[readLength(in)];
+            for (int i = 0; i < array.length; i++) {
+                array[i] = read(in);
+            }
+            return array;
+        }
+        case LIST: {
+            int size = readLength(in);
+            List<Object> list = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                list.add(read(in));
+            }
+            return list;
+        }
+        case MAP:
+            return readEntries(in, new LinkedHashMap<>());
+        case PARAMETER_SET:
+            return readEntries(in, new SimpleParameterSet());
+        case PRIMITIVE_PARAMETER_SET:
+            return readPrimitiveEntries(in);
+        default:
+            throw new StreamCorruptedException(BINARY_TAG_IS_UNKNOWN.with(tag));
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static <M extends Map<?, ?>> M readEntries(DataInputStream in, M map) throws IOException {
+        Map<Object, Object> entries = (Map<Object, Object>)map;
+        int size = readLength(in);
+        for (int i = 0; i < size; i++) {
+            entries.put(read(in), read(in));
+        }
+        return map;
+    }
+
+    private static PrimitiveParameterSet readPrimitiveEntries(DataInputStream in) throws IOException {
+        int size = readLength(in);
+        PrimitiveParameterSet parameters = new PrimitiveParameterSet(size);
+        for (int i = 0; i < size; i++) {
+            String key = readString(in);
+            int tag = in.readUnsignedByte();
+            switch (tag) {
+            case INT:
+                parameters.putInt(key, (int)readVarLong(in));
+                break;
+            case LONG:
+                parameters.putLong(key, readVarLong(in));
+                break;
+            case DOUBLE:
+                parameters.putDouble(key, in.readDouble());
+                break;
+            case FALSE:
+            case TRUE:
+                parameters.putBoolean(key, tag == TRUE);
+                break;
+            default:
+                parameters.put(key, read(in, tag));
+                break;
+            }
+        }
+        return parameters;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeLength(out, bytes.length);
+        out.write(bytes);
+    }
+    
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[readLength(in)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+    
+    private static void writeLength(DataOutputStream out, int length) throws IOException {
+        writeVarLong(out, length);
+    }
+
+    private static int readLength(DataInputStream in) throws IOException {
+        long length = readVarLong(in);
+        if (length < 0 || length > Integer.MAX_VALUE) {
+            throw new StreamCorruptedException(BINARY_CONTENT_IS_MALFORMED.toString());
+        }
+        return (int)length;
+    }
+    
+    /**
+     * Writes the value as zigzag-encoded variable-length integer,
+     * which takes a single byte for small values of either sign.
+     */
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        long zigzag = (value << 1) ^ (value >> 63);
+        while ((zigzag & ~0x7FL) != 0) {
+            out.writeByte((int)((zigzag & 0x7F) | 0x80));
+            zigzag >>>= 7;
+        }
+        out.writeByte((int)zigzag);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long zigzag = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            zigzag |= (long)(b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return (zigzag >>> 1) ^ -(zigzag & 1);
+            }
+        }
+        throw new StreamCorruptedException(BINARY_CONTENT_IS_MALFORMED.toString());
+    }
+}
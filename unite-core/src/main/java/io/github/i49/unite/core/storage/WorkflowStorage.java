@@ -20,7 +20,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
+import io.github.i49.unite.api.base.ParameterSet;
 import io.github.i49.unite.api.workflow.Job;
 import io.github.i49.unite.api.workflow.JobStatus;
 import io.github.i49.unite.api.workflow.Workflow;
@@ -30,7 +33,7 @@ import io.github.i49.unite.core.workflow.ManagedJob;
 /**
  * Low level interface for operating on workflow storage.
  */
-public interface WorkflowStorage {
+public interface WorkflowStorage extends AutoCloseable {
 
     /**
      * Creates the schema in this storage.
@@ -83,6 +86,17 @@ public interface WorkflowStorage {
     List<Job> findJobsByStatus(JobStatus status);
 
     Optional<Job> findFirstJobByStatus(JobStatus status);
+
+    /**
+     * Claims the first READY job for the specified runner.
+     * The claimed job is moved to {@link JobStatus#RUNNING} atomically, 
+     * so that the same job is never claimed twice even if the storage is shared
+     * by multiple runners.
+     * 
+     * @param runnerId the identifier of the runner which will own the job.
+     * @return the claimed job, or empty if no job is READY.
+     */
+    Optional<Job> claimNextReadyJob(String runnerId);
     
     /**
      * Returns the status of the job specified by the ID.
@@ -94,6 +108,76 @@ public interface WorkflowStorage {
     JobStatus getJobStatus(long id);
 
     Workflow getWorkflow(long id);
+
+    /**
+     * Returns the input of the job.
+     * The jobs found by this storage load their input through this method
+     * only when it is requested.
+     * 
+     * @param id the identifier of the job.
+     * @return the input of the job, never be {@code null}.
+     */
+    ParameterSet getInputParameters(long id);
+
+    /**
+     * Returns the output of the job.
+     * The jobs found by this storage load their output through this method
+     * only when it is requested.
+     * 
+     * @param id the identifier of the job.
+     * @return the output of the job, empty if the job has not completed yet.
+     */
+    ParameterSet getOutputParameters(long id);
+
+    /**
+     * Returns the entries of the specified keys in the output of the job,
+     * without reading the other entries.
+     * 
+     * @param id the identifier of the job.
+     * @param keys the keys of the entries to read.
+     * @return the entries found in the output of the job, never be {@code null}.
+     */
+    ParameterSet getOutputParameters(long id, Set<String> keys);
+    
+    /**
+     * Finds the jobs whose output has a number of the specified key within the range.
+     * Booleans in the outputs are compared as 1 or 0.
+     * 
+     * @param key the key of the entry in the outputs.
+     * @param minimum the lower bound of the number, inclusive.
+     * @param maximum the upper bound of the number, exclusive.
+     * @return the list of the jobs found in the order of their identifiers, never be {@code null}.
+     */
+    List<Job> findJobsByOutputRange(String key, double minimum, double maximum);
+
+    /**
+     * Finds the jobs whose output has the text of the specified key.
+     * Enum constants in the outputs are compared by their names,
+     * and the texts longer than {@link ParameterType#MAXIMUM_TEXT_LENGTH} are never found.
+     * 
+     * @param key the key of the entry in the outputs.
+     * @param value the text to find.
+     * @return the list of the jobs found in the order of their identifiers, never be {@code null}.
+     */
+    List<Job> findJobsByOutputText(String key, String value);
+    
+    /**
+     * Returns the standard output of the job.
+     * The jobs found by this storage load their standard output through this method
+     * only when it is requested.
+     * 
+     * @param id the identifier of the job.
+     * @return the unmodifiable list of the lines, empty if the job has no output yet.
+     */
+    List<String> getStandardOutput(long id);
+
+    /**
+     * Subscribes to the events that jobs in this storage have become READY.
+     * 
+     * @param listener the listener to be notified of the events.
+     * @return the subscription, which must be closed when the listener is no longer needed.
+     */
+    ReadyJobChannel.Subscription subscribeReadyJobs(ReadyJobListener listener);
     
     //
     
@@ -110,12 +194,27 @@ public interface WorkflowStorage {
     /**
      * Stores the specified job with product of the execution.
      * 
+     * <p>
+     * If the job is stored as {@link JobStatus#COMPLETED} for the first time, 
+     * its successors are notified in the same transaction.
+     * Each successor has the number of its pending dependencies decremented,
+     * and the successors which have no more pending dependencies are made READY.
+     * Storing the job as completed again does not notify the successors twice.
+     * </p>
+     * 
      * @param job the job to store.
      * @param status the status of the job after the execution.
      * @param jobOutput the output of the job.
-     * @param standardOutput the standard output produced by the execution.
+     * @param standardOutput the lines of the standard output produced by the execution, can be {@code null}.
+     *                       The stream is consumed but not closed by this method.
      */
-    void storeJob(Job job, JobStatus status, Map<String, Object> jobOutput, String[] standardOutput);
+    void storeJob(Job job, JobStatus status, Map<String, Object> jobOutput, Stream<String> standardOutput);
 
-    int updateJobStatusIfReady(long jobId);
+    /**
+     * Releases the resources owned by this storage.
+     * The data source given to this storage by the caller is left open.
+     */
+    @Override
+    default void close() {
+    }
 }
@@ -18,30 +18,52 @@ package io.github.i49.unite.core.storage.jdbc;
 
 import static io.github.i49.unite.core.message.Message.*;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.logging.Level;
 import java.util.logging.Logger;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import io.github.i49.unite.api.base.ParameterSet;
 import io.github.i49.unite.api.base.WorkflowException;
 import io.github.i49.unite.api.tasks.Task;
 import io.github.i49.unite.api.workflow.Job;
 import io.github.i49.unite.api.workflow.JobStatus;
+import io.github.i49.unite.api.workflow.ParameterSetMapper;
 import io.github.i49.unite.api.workflow.Workflow;
 import io.github.i49.unite.api.workflow.WorkflowStatus;
 import io.github.i49.unite.core.storage.BinaryMarshaller;
+import io.github.i49.unite.core.storage.InProcessReadyJobChannel;
 import io.github.i49.unite.core.storage.JsonBindingMarshaller;
 import io.github.i49.unite.core.storage.Marshaller;
+import io.github.i49.unite.core.storage.ParameterType;
+import io.github.i49.unite.core.storage.ReadyJobChannel;
+import io.github.i49.unite.core.storage.ReadyJobListener;
 import io.github.i49.unite.core.storage.WorkflowStorage;
+import io.github.i49.unite.core.storage.util.StatementCache;
 import io.github.i49.unite.core.workflow.JobLink;
 import io.github.i49.unite.core.workflow.ManagedJob;
 import io.github.i49.unite.core.workflow.ManagedWorkflow;
+import io.github.i49.unite.core.workflow.SimpleParameterSet;
+import io.github.i49.unite.core.workflow.mappers.SelectiveParameterSetMapper;
 
 /**
  * Connected JDBC storage.
@@ -50,21 +72,82 @@ import io.github.i49.unite.core.workflow.ManagedWorkflow;
  */
 public class ActiveWorkflowStorage extends JdbcSession implements WorkflowStorage {
     
-    @SuppressWarnings("unused")
     private static final Logger log = Logger.getLogger(ActiveWorkflowStorage.class.getName());
  
+    /** The maximum number of rows inserted by a batch. */
+    private static final int BATCH_SIZE = 500;
+    /** The direction of the parameters which are the output of the jobs. */
+    private static final String OUTPUT_DIRECTION = "O";
+    /** The maximum length of the parameter keys stored one by one. */
+    private static final int MAXIMUM_KEY_LENGTH = 200;
+    /** The prefix of the temporary files holding the compressed standard output. */
+    private static final String TEMPORARY_FILE_PREFIX = "unite-stdout-";
+    
     private final Marshaller<String> textMarshaller;
     private final Marshaller<byte[]> binaryMarshaller;
 
     private final RowMappers mappers;
+    private final ReadyJobChannel channel;
+    private final Dialect dialect;
+    private boolean parameterIndexEnabled;
+    
+    /**
+     * Constructs this storage loading the contents of the jobs while the connection is open.
+     * 
+     * @param connection the connection to the database.
+     * @param channel the channel of the events that jobs have become READY,
+     *                which should be shared with the other storages of the same database,
+     *                for example the one given by {@link InProcessReadyJobChannel#of(javax.sql.DataSource)}.
+     */
+    public ActiveWorkflowStorage(Connection connection, ReadyJobChannel channel) {
+        this(connection, channel, null);
+    }
     
-    public ActiveWorkflowStorage(Connection connection) {
+    /**
+     * Constructs this storage.
+     * 
+     * @param connection the connection to the database.
+     * @param channel the channel of the events that jobs have become READY.
+     * @param loader the storage loading the contents of the jobs found by this storage on demand, 
+     *               or {@code null} if this storage should load them while the connection is open.
+     */
+    public ActiveWorkflowStorage(Connection connection, ReadyJobChannel channel, WorkflowStorage loader) {
+        this(connection, Dialect.of(connection), channel, loader);
+    }
+    
+    /**
+     * Constructs this storage with the dialect already detected.
+     * 
+     * @param connection the connection to the database.
+     * @param dialect the dialect of the database.
+     * @param channel the channel of the events that jobs have become READY.
+     * @param loader the storage loading the contents of the jobs found by this storage on demand, 
+     *               or {@code null} if this storage should load them while the connection is open.
+     */
+    public ActiveWorkflowStorage(Connection connection, Dialect dialect, ReadyJobChannel channel, WorkflowStorage loader) {
         super(connection);
         this.textMarshaller = JsonBindingMarshaller.getInstance();
         this.binaryMarshaller = BinaryMarshaller.getInstance();
-        this.mappers = new RowMappers();
+        this.mappers = new RowMappers((loader != null) ? loader : this);
+        this.channel = channel;
+        this.dialect = dialect;
     }
 
+    /**
+     * Specifies whether the output parameters of the jobs are also stored entry by entry.
+     * The entries let the links read only the keys declared by their mappers,
+     * and the jobs be found by their outputs.
+     * All storages sharing the database should be configured alike,
+     * because the entries are neither written nor read by the storages where this is disabled.
+     * 
+     * @param enabled {@code true} if the entries should be stored, which is {@code false} by default.
+     * @return this storage.
+     */
+    public ActiveWorkflowStorage setParameterIndexEnabled(boolean enabled) {
+        this.parameterIndexEnabled = enabled;
+        return this;
+    }
+    
     @Override
     public void format() {
         if (checkSchemaExistence()) {
@@ -72,12 +155,15 @@ public class ActiveWorkflowStorage extends JdbcSession implements WorkflowStorag
         }
         SqlScriptRunner runner = new SqlScriptRunner(getConnection());
         runner.runScript("create-schema");
+        clearStatementCache();
     }
     
     @Override
     public void clear() {
         execute(SqlCommand.DELETE_TASKS);
         execute(SqlCommand.DELETE_JOB_LINKS);
+        execute(SqlCommand.DELETE_STANDARD_OUTPUTS);
+        execute(SqlCommand.DELETE_JOB_PARAMETERS);
         execute(SqlCommand.DELETE_JOBS);
         execute(SqlCommand.DELETE_WORKFLOWS);
     }
@@ -113,10 +199,8 @@ public class ActiveWorkflowStorage extends JdbcSession implements WorkflowStorag
         try (Query q = createQuery(SqlCommand.FIND_JOBS_BY_STATUS)) {
             q.setEnum(1, status);
             List<ManagedJob> jobs = q.queryForList(mappers::mapToJob);
-            return jobs.stream().map(job->{
-                job.setTasks(findTasks(job.getId()));
-                return job;
-            }).collect(Collectors.toList());
+            loadTasks(jobs);
+            return new ArrayList<>(jobs);
         }
     }
 
@@ -124,10 +208,25 @@ public class ActiveWorkflowStorage extends JdbcSession implements WorkflowStorag
     public Optional<Job> findFirstJobByStatus(JobStatus status) {
         try (Query q = createQuery(SqlCommand.FIND_FIRST_JOB_BY_STATUS)) {
             q.setEnum(1, status);
-            return q.queryForObject(mappers::mapToJob).map(job->{
-                job.setTasks(findTasks(job.getId()));
-                return job;
-            });
+            return q.queryForObject(mappers::mapToJob).map(this::loadTasks);
+        }
+    }
+    
+    @Override
+    public Optional<Job> claimNextReadyJob(String runnerId) {
+        if (dialect.supportsSkipLocked()) {
+            return claimNextJob(runnerId);
+        }
+        for (;;) {
+            Optional<Long> candidate = findClaimableJobId();
+            if (!candidate.isPresent()) {
+                return Optional.empty();
+            }
+            long jobId = candidate.get();
+            // Other runner may have claimed the same job in the meantime.
+            if (claimJob(jobId, runnerId)) {
+                return Optional.of(findJobToRun(jobId));
+            }
         }
     }
     
@@ -135,7 +234,7 @@ public class ActiveWorkflowStorage extends JdbcSession implements WorkflowStorag
     public Job findJobById(long jobId) {
         try (Query q = createQuery(SqlCommand.FIND_JOB_BY_ID)) {
             q.setLong(1, jobId);
-            return q.queryForObject(mappers::mapToJob).get();
+            return loadTasks(q.queryForObject(mappers::mapToJob).get());
         }
     }
     
@@ -155,12 +254,112 @@ public class ActiveWorkflowStorage extends JdbcSession implements WorkflowStorag
         }
     }
     
+    @Override
+    public ParameterSet getInputParameters(long jobId) {
+        try (Query q = createQuery(SqlCommand.FIND_JOB_INPUT)) {
+            q.setLong(1, jobId);
+            return q.queryForObject(rs->mappers.mapToParameterSet(rs.getBytes(1))).get();
+        }
+    }
+    
+    @Override
+    public ParameterSet getOutputParameters(long jobId) {
+        try (Query q = createQuery(SqlCommand.FIND_JOB_OUTPUT)) {
+            q.setLong(1, jobId);
+            return q.queryForObject(rs->mappers.mapToParameterSet(rs.getBytes(1))).get();
+        }
+    }
+    
+    @Override
+    public ParameterSet getOutputParameters(long jobId, Set<String> keys) {
+        for (String key: keys) {
+            if (!parameterIndexEnabled || !isStorableKey(key)) {
+                return selectEntries(getOutputParameters(jobId), keys);
+            }
+        }
+        ParameterSet found = new SimpleParameterSet();
+        if (keys.isEmpty()) {
+            return found;
+        }
+        List<String> list = new ArrayList<>(keys);
+        try (Query q = createQuery(SqlCommand.FIND_JOB_OUTPUT_ENTRIES)) {
+            final int chunkSize = SqlCommand.FIND_JOB_OUTPUT_ENTRIES.getListSize();
+            for (int from = 0; from < list.size(); from += chunkSize) {
+                int to = Math.min(from + chunkSize, list.size());
+                q.setLong(1, jobId);
+                for (int i = 0; i < chunkSize; i++) {
+                    q.setString(i + 2, list.get(Math.min(from + i, to - 1)));
+                }
+                q.queryForList(rs->found.put(rs.getString(1), unmarshal(rs.getBytes(2))));
+            }
+        }
+        if (found.isEmpty()) {
+            // The job may have been stored by a client without the parameter index.
+            return selectEntries(getOutputParameters(jobId), keys);
+        }
+        return found;
+    }
+    
+    @Override
+    public List<Job> findJobsByOutputRange(String key, double minimum, double maximum) {
+        checkParameterIndexEnabled();
+        if (!isStorableKey(key) || Double.isNaN(minimum) || Double.isNaN(maximum)) {
+            return Collections.emptyList();
+        }
+        try (Query q = createQuery(SqlCommand.FIND_JOBS_BY_OUTPUT_RANGE)) {
+            q.setString(1, key);
+            // Some databases do not accept infinities, which no indexed number exceeds anyway.
+            q.setDouble(2, Math.max(minimum, -Double.MAX_VALUE));
+            q.setDouble(3, Math.min(maximum, Double.MAX_VALUE));
+            List<ManagedJob> jobs = q.queryForList(mappers::mapToJob);
+            loadTasks(jobs);
+            return new ArrayList<>(jobs);
+        }
+    }
+    
+    @Override
+    public List<Job> findJobsByOutputText(String key, String value) {
+        checkParameterIndexEnabled();
+        if (!isStorableKey(key) || value.length() > ParameterType.MAXIMUM_TEXT_LENGTH) {
+            return Collections.emptyList();
+        }
+        try (Query q = createQuery(SqlCommand.FIND_JOBS_BY_OUTPUT_TEXT)) {
+            q.setString(1, key);
+            q.setString(2, value);
+            List<ManagedJob> jobs = q.queryForList(mappers::mapToJob);
+            loadTasks(jobs);
+            return new ArrayList<>(jobs);
+        }
+    }
+    
+    @Override
+    public List<String> getStandardOutput(long jobId) {
+        try (Query q = createQuery(SqlCommand.FIND_STANDARD_OUTPUT)) {
+            q.setLong(1, jobId);
+            return q.queryForObject(rs->{
+                try (InputStream content = rs.getBinaryStream(1)) {
+                    return StandardOutputCodec.decode(content);
+                } catch (IOException e) {
+                    throw new WorkflowException(REPOSITORY_ACCESS_ERROR_OCCURRED.toString(), e);
+                }
+            }).orElse(Collections.emptyList());
+        }
+    }
+    
+    @Override
+    public ReadyJobChannel.Subscription subscribeReadyJobs(ReadyJobListener listener) {
+        return channel.subscribe(listener);
+    }
+    
     @Override
     public List<JobLink> findLinksByTarget(ManagedJob target) {
+        List<JobLink> links;
         try (Query q = createQuery(SqlCommand.FIND_LINKS_BY_TARGET)) {
             q.setLong(1, target.getId());
-            return q.queryForList(mappers.mappingToJobLink(target));
+            links = q.queryForList(mappers.mappingToJobLink(target));
         }
+        loadSourceOutputs(target, links);
+        return links;
     }
     
     @Override
@@ -172,47 +371,127 @@ public class ActiveWorkflowStorage extends JdbcSession implements WorkflowStorag
     }
     
     @Override
-    public void storeJob(Job job, JobStatus status, Map<String, Object> jobOutput, String[] standardOutput) {
-        try (Query q = createQuery(SqlCommand.UPDATE_JOB)) {
-            q.setEnum(1, status);
-            q.setBytes(2, marshal(jobOutput));
-            q.setString(3, marshalToString(standardOutput));
-            q.setLong(4, job.getId());
-            q.update();
+    public void storeJob(Job job, JobStatus status, Map<String, Object> jobOutput, Stream<String> standardOutput) {
+        int[] promoted = new int[1];
+        runInTransaction(()->{
+            if (status == JobStatus.COMPLETED) {
+                promoted[0] = completeJob(job);
+            }
+            try (Query q = createQuery(SqlCommand.UPDATE_JOB)) {
+                q.setEnum(1, status);
+                q.setBytes(2, marshal(jobOutput));
+                q.setLong(3, job.getId());
+                q.update();
+            }
+            try (Query q = createQuery(SqlCommand.DELETE_JOB_PARAMETERS_BY_JOB)) {
+                q.setLong(1, job.getId());
+                q.setString(2, OUTPUT_DIRECTION);
+                q.update();
+            }
+            if (parameterIndexEnabled) {
+                insertParameterEntries(job.getId(), OUTPUT_DIRECTION, jobOutput);
+            }
+            try (Query q = createQuery(SqlCommand.DELETE_STANDARD_OUTPUT)) {
+                q.setLong(1, job.getId());
+                q.update();
+            }
+            Iterator<String> lines = (standardOutput != null) ? standardOutput.iterator() : null;
+            if (lines != null && lines.hasNext()) {
+                insertStandardOutput(job.getId(), lines);
+            }
+        });
+        if (promoted[0] > 0) {
+            channel.publish();
         }
     }
     
-    @Override
-    public int updateJobStatusIfReady(long jobId) {
-        try (Query q = createQuery(SqlCommand.UPDATE_JOB_STATUS_IF_READY)) {
-            q.setLong(1, jobId);
+    /**
+     * Changes the status of the job to COMPLETED and promotes its successors.
+     * The successors are promoted only by the first completion of the job,
+     * so that the pending dependencies of them are never decremented twice.
+     * This method must be called in the transaction storing the job.
+     * 
+     * @param job the job completed.
+     * @return the number of the successors made READY.
+     */
+    private int completeJob(Job job) {
+        try (Query q = createQuery(SqlCommand.COMPLETE_JOB)) {
+            q.setLong(1, job.getId());
+            if (q.update() == 0) {
+                return 0;
+            }
+        }
+        try (Query q = createQuery(SqlCommand.DECREMENT_PENDING_DEPENDENCIES)) {
+            q.setLong(1, job.getId());
+            if (q.update() == 0) {
+                return 0;
+            }
+        }
+        try (Query q = createQuery(SqlCommand.PROMOTE_SUCCESSORS)) {
+            q.setLong(1, job.getId());
             return q.update();
         }
     }
-  
-    // helper methods
     
-    private void addWorkflow(ManagedWorkflow workflow) {
-        workflow.setStatus(WorkflowStatus.READY);
-        long workflowId = insertWorkflow(workflow);
-        for (ManagedJob job: workflow.getManagedJobs()) {
-            job.setWorkflowId(workflowId);
-            addJob(job, workflow.getDependenciesOf(job));
-        }
-        for (JobLink link: workflow.getJobLinks()) {
-            insertJobLink(link);
+    /**
+     * Inserts the standard output of the job.
+     * The lines are compressed into a temporary file while being read, 
+     * and the file is streamed to the statement, 
+     * so that neither the lines nor the compressed content are held in memory.
+     * 
+     * @param jobId the identifier of the job.
+     * @param lines the iterator over the lines of the standard output.
+     */
+    private void insertStandardOutput(long jobId, Iterator<String> lines) {
+        Path file = null;
+        try {
+            file = Files.createTempFile(TEMPORARY_FILE_PREFIX, ".gz");
+            try (OutputStream out = Files.newOutputStream(file)) {
+                StandardOutputCodec.encode(lines, out);
+            }
+            try (InputStream content = Files.newInputStream(file);
+                    Query q = createQuery(SqlCommand.INSERT_STANDARD_OUTPUT)) {
+                q.setLong(1, jobId);
+                q.setBinaryStream(2, content, Files.size(file));
+                q.update();
+            }
+        } catch (IOException e) {
+            throw new WorkflowException(REPOSITORY_ACCESS_ERROR_OCCURRED.toString(), e);
+        } finally {
+            deleteTemporaryFile(file);
         }
     }
-
-    private void addJob(ManagedJob job, Set<ManagedJob> dependencies) {
-        JobStatus status = dependencies.isEmpty() ? JobStatus.READY : JobStatus.WAITING;
-        long jobId = insertJob(job, status);
-        int sequence = 0;
-        for (Task task : job.getTasks()) {
-            insertTask(task, jobId, sequence++);
+    
+    private static void deleteTemporaryFile(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.log(Level.WARNING, e.getMessage(), e);
         }
     }
     
+  
+    // helper methods
+    
+    private void addWorkflow(ManagedWorkflow workflow) {
+        runInTransaction(()->{
+            workflow.setStatus(WorkflowStatus.READY);
+            long workflowId = insertWorkflow(workflow);
+            List<ManagedJob> jobs = new ArrayList<>();
+            for (ManagedJob job: workflow.getManagedJobs()) {
+                job.setWorkflowId(workflowId);
+                jobs.add(job);
+            }
+            insertJobs(jobs, workflow);
+            insertTasks(jobs);
+            insertJobLinks(workflow.getJobLinks());
+        });
+        channel.publish();
+    }
+
     private long insertWorkflow(ManagedWorkflow workflow) {
         try (Query q = createQuery(SqlCommand.INSERT_WORKFLOW)) {
             q.setString(1, workflow.getName());
@@ -223,42 +502,254 @@ public class ActiveWorkflowStorage extends JdbcSession implements WorkflowStorag
         }
     }
 
-    private long insertJob(ManagedJob job, JobStatus status) {
+    /**
+     * Inserts the jobs in batches and assigns the generated identifiers to them.
+     */
+    private void insertJobs(List<ManagedJob> jobs, ManagedWorkflow workflow) {
         try (Query q = createQuery(SqlCommand.INSERT_JOB)) {
-            q.setString(1, job.getName());
-            q.setEnum(2, status);
-            q.setBytes(3, marshal(job.getInputParameters()));
-            q.setLong(4, job.getWorkdlowId());
-            long jobId = q.updateAndGenerateLong();
-            job.setId(jobId);
-            return jobId;
+            for (int from = 0; from < jobs.size(); from += BATCH_SIZE) {
+                List<ManagedJob> batch = jobs.subList(from, Math.min(from + BATCH_SIZE, jobs.size()));
+                for (ManagedJob job: batch) {
+                    int dependencies = workflow.getDependenciesOf(job).size();
+                    JobStatus status = (dependencies == 0) ? JobStatus.READY : JobStatus.WAITING;
+                    q.setString(1, job.getName());
+                    q.setEnum(2, status);
+                    q.setBytes(3, marshal(job.getInputParameters()));
+                    q.setLong(4, job.getWorkdlowId());
+                    q.setInt(5, dependencies);
+                    q.addBatch();
+                }
+                long[] ids = q.executeBatchAndGenerateLongs();
+                for (int i = 0; i < ids.length; i++) {
+                    batch.get(i).setId(ids[i]);
+                }
+            }
         }
     }
     
-    private void insertJobLink(JobLink link) {
+    private void insertJobLinks(Iterable<JobLink> links) {
+        MapperInterner interner = MapperInterner.getInstance();
+        // The links usually share a few mappers, which are serialized only once.
+        Map<ParameterSetMapper, byte[]> binaries = new IdentityHashMap<>();
         try (Query q = createQuery(SqlCommand.INSERT_JOB_LINK)) {
-            q.setLong(1, link.getSource().getId());
-            q.setLong(2, link.getTarget().getId());
-            q.setString(3, link.getMapper().getClass().getName());
-            q.setBytes(4, marshal(link.getMapper()));
-            q.update();
+            int pending = 0;
+            for (JobLink link: links) {
+                ParameterSetMapper mapper = link.getMapper();
+                q.setLong(1, link.getSource().getId());
+                q.setLong(2, link.getTarget().getId());
+                q.setString(3, mapper.getClass().getName());
+                q.setBytes(4, binaries.computeIfAbsent(mapper, interner::marshal));
+                q.addBatch();
+                if (++pending == BATCH_SIZE) {
+                    q.executeBatch();
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                q.executeBatch();
+            }
         }
     }
     
-    private void insertTask(Task task, long jobId, int sequenceNumber) {
+    private void insertTasks(List<ManagedJob> jobs) {
         try (Query q = createQuery(SqlCommand.INSERT_TASK)) {
-            q.setLong(1, jobId);
-            q.setInt(2, sequenceNumber);
-            q.setString(3, task.getClass().getName());
-            String params = marshalToString(task);
-            q.setString(4, params);
-            q.update();
+            int pending = 0;
+            for (ManagedJob job: jobs) {
+                int sequence = 0;
+                for (Task task : job.getTasks()) {
+                    q.setLong(1, job.getId());
+                    q.setInt(2, sequence++);
+                    q.setString(3, task.getClass().getName());
+                    q.setString(4, marshalToString(task));
+                    q.addBatch();
+                    if (++pending == BATCH_SIZE) {
+                        q.executeBatch();
+                        pending = 0;
+                    }
+                }
+            }
+            if (pending > 0) {
+                q.executeBatch();
+            }
         }
     }
 
+    /**
+     * Inserts the entries of the parameters one by one, in addition to the whole parameter set.
+     * The numbers and the texts are also inserted into the columns by which the jobs are queried.
+     * The entries of too long keys are not inserted, 
+     * which are read from the whole parameter set instead.
+     */
+    private void insertParameterEntries(long jobId, String direction, Map<String, Object> parameters) {
+        if (parameters == null || parameters.isEmpty()) {
+            return;
+        }
+        try (Query q = createQuery(SqlCommand.INSERT_JOB_PARAMETER)) {
+            int pending = 0;
+            for (Map.Entry<String, Object> entry: parameters.entrySet()) {
+                if (!isStorableKey(entry.getKey())) {
+                    continue;
+                }
+                Object value = entry.getValue();
+                q.setLong(1, jobId);
+                q.setString(2, direction);
+                q.setString(3, entry.getKey());
+                q.setEnum(4, ParameterType.of(value));
+                q.setBytes(5, marshal(value));
+                Double number = ParameterType.toNumber(value);
+                if (number != null) {
+                    q.setDouble(6, number);
+                } else {
+                    q.setNull(6, Types.DOUBLE);
+                }
+                q.setString(7, ParameterType.toText(value));
+                q.addBatch();
+                if (++pending == BATCH_SIZE) {
+                    q.executeBatch();
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                q.executeBatch();
+            }
+        }
+    }
+    
+    private void checkParameterIndexEnabled() {
+        if (!parameterIndexEnabled) {
+            throw new WorkflowException(PARAMETER_INDEX_IS_DISABLED.toString());
+        }
+    }
+    
+    private static boolean isStorableKey(String key) {
+        return key != null && key.length() <= MAXIMUM_KEY_LENGTH;
+    }
+    
+    /**
+     * Assigns to the source jobs of the links the outputs which their mappers read.
+     * For the mappers declaring their source keys, only the entries of those keys are fetched
+     * if the parameter index is enabled. 
+     * Otherwise the whole outputs are fetched.
+     * The whole output is also fetched for the source job which has no stored entries,
+     * because it may have been stored by a client without the parameter index.
+     */
+    private void loadSourceOutputs(ManagedJob target, List<JobLink> links) {
+        List<Set<String>> keysOfLinks = new ArrayList<>(links.size());
+        Set<String> allKeys = new LinkedHashSet<>();
+        boolean wholeOutputs = false;
+        for (JobLink link: links) {
+            Set<String> keys = getStoredSourceKeys(link.getMapper());
+            if (keys != null) {
+                allKeys.addAll(keys);
+            } else {
+                wholeOutputs = true;
+            }
+            keysOfLinks.add(keys);
+        }
+        Map<Long, ParameterSet> entries = allKeys.isEmpty() ? 
+                Collections.emptyMap() : findOutputEntriesByTarget(target, new ArrayList<>(allKeys));
+        Map<Long, ParameterSet> outputs = wholeOutputs ? 
+                findOutputsByTarget(target) : Collections.emptyMap();
+        for (int i = 0; i < links.size(); i++) {
+            ManagedJob source = links.get(i).getSource();
+            Set<String> keys = keysOfLinks.get(i);
+            ParameterSet output;
+            if (keys != null) {
+                ParameterSet found = entries.get(source.getId());
+                if (found == null) {
+                    found = getOutputParameters(source.getId());
+                }
+                output = selectEntries(found, keys);
+            } else {
+                output = outputs.getOrDefault(source.getId(), new SimpleParameterSet());
+            }
+            source.setOutputParamters(output);
+        }
+    }
+    
+    private static ParameterSet selectEntries(ParameterSet parameters, Set<String> keys) {
+        ParameterSet selected = new SimpleParameterSet();
+        for (String key: keys) {
+            if (parameters.containsKey(key)) {
+                selected.put(key, parameters.get(key));
+            }
+        }
+        return selected;
+    }
+    
+    /**
+     * Returns the source keys of the mapper if all of them can be found in the stored entries.
+     */
+    private Set<String> getStoredSourceKeys(ParameterSetMapper mapper) {
+        if (!parameterIndexEnabled || !(mapper instanceof SelectiveParameterSetMapper)) {
+            return null;
+        }
+        Set<String> keys = ((SelectiveParameterSetMapper)mapper).getSourceKeys();
+        for (String key: keys) {
+            if (!isStorableKey(key)) {
+                return null;
+            }
+        }
+        return keys;
+    }
+    
+    /**
+     * Finds the entries of the given keys in the outputs of the source jobs.
+     * The keys are bound in chunks, the last key being repeated to fill up the incomplete chunk.
+     */
+    private Map<Long, ParameterSet> findOutputEntriesByTarget(ManagedJob target, List<String> keys) {
+        Map<Long, ParameterSet> entries = new HashMap<>();
+        try (Query q = createQuery(SqlCommand.FIND_OUTPUT_ENTRIES_BY_TARGET)) {
+            final int chunkSize = SqlCommand.FIND_OUTPUT_ENTRIES_BY_TARGET.getListSize();
+            for (int from = 0; from < keys.size(); from += chunkSize) {
+                int to = Math.min(from + chunkSize, keys.size());
+                q.setLong(1, target.getId());
+                for (int i = 0; i < chunkSize; i++) {
+                    q.setString(i + 2, keys.get(Math.min(from + i, to - 1)));
+                }
+                q.queryForList(rs->{
+                    Object value = unmarshal(rs.getBytes(3));
+                    entries.computeIfAbsent(rs.getLong(1), id->new SimpleParameterSet()).put(rs.getString(2), value);
+                    return value;
+                });
+            }
+        }
+        return entries;
+    }
+    
+    /**
+     * Finds the whole outputs of the source jobs.
+     */
+    private Map<Long, ParameterSet> findOutputsByTarget(ManagedJob target) {
+        Map<Long, ParameterSet> outputs = new HashMap<>();
+        try (Query q = createQuery(SqlCommand.FIND_OUTPUTS_BY_TARGET)) {
+            q.setLong(1, target.getId());
+            q.queryForList(rs->{
+                ParameterSet output = mappers.mapToParameterSet(rs.getBytes(2));
+                outputs.put(rs.getLong(1), output);
+                return output;
+            });
+        }
+        return outputs;
+    }
+    
     private Query createQuery(SqlCommand command) {
         try {
-            return command.createQuery(getConnection());
+            return command.createQuery(getConnection(), dialect);
+        } catch (SQLException e) {
+            throw new WorkflowException(REPOSITORY_ACCESS_ERROR_OCCURRED.toString(), e);
+        }
+    }
+    
+    /**
+     * Discards the statements prepared before the schema was modified.
+     */
+    private void clearStatementCache() {
+        try {
+            StatementCache cache = StatementCache.of(getConnection());
+            if (cache != null) {
+                cache.clear();
+            }
         } catch (SQLException e) {
             throw new WorkflowException(REPOSITORY_ACCESS_ERROR_OCCURRED.toString(), e);
         }
@@ -273,7 +764,10 @@ public class ActiveWorkflowStorage extends JdbcSession implements WorkflowStorag
     private boolean checkSchemaExistence() {
         try {
             DatabaseMetaData meta = getConnection().getMetaData();
-            try (ResultSet resultSet = meta.getTables(null, null, "WORKFLOW", null)) {
+            // HSQLDB folds the unquoted names to upper case and PostgreSQL to lower case,
+            // while MySQL on Linux keeps them as written in the schema, that is, in lower case.
+            String tableName = meta.storesUpperCaseIdentifiers() ? "WORKFLOW" : "workflow";
+            try (ResultSet resultSet = meta.getTables(null, null, tableName, null)) {
                 if (resultSet.next()) {
                     return true;
                 }
@@ -284,10 +778,71 @@ public class ActiveWorkflowStorage extends JdbcSession implements WorkflowStorag
         }
     }
 
-    private List<Task> findTasks(long jobId) {
-        try (Query q = createQuery(SqlCommand.FIND_TASK)) {
+    private Optional<Long> findClaimableJobId() {
+        try (Query q = createQuery(SqlCommand.FIND_CLAIMABLE_JOB_ID)) {
+            return q.queryForObject(rs->rs.getLong(1));
+        }
+    }
+    
+    private boolean claimJob(long jobId, String runnerId) {
+        try (Query q = createQuery(SqlCommand.CLAIM_JOB)) {
+            q.setString(1, runnerId);
+            q.setLong(2, jobId);
+            return q.update() > 0;
+        }
+    }
+
+    /**
+     * Claims the next READY job with a single statement skipping the jobs locked by other runners.
+     */
+    private Optional<Job> claimNextJob(String runnerId) {
+        try (Query q = createQuery(SqlCommand.CLAIM_NEXT_JOB)) {
+            q.setString(1, runnerId);
+            return q.queryForObject(mappers::mapToJobToRun).map(this::loadTasks);
+        }
+    }
+    
+    /**
+     * Finds the job just claimed, with its input which the runner needs right away.
+     */
+    private Job findJobToRun(long jobId) {
+        try (Query q = createQuery(SqlCommand.FIND_JOB_TO_RUN)) {
             q.setLong(1, jobId);
-            return q.queryForList(mappers::mapToTask);
+            return loadTasks(q.queryForObject(mappers::mapToJobToRun).get());
+        }
+    }
+    
+    private ManagedJob loadTasks(ManagedJob job) {
+        loadTasks(Collections.singletonList(job));
+        return job;
+    }
+    
+    /**
+     * Loads the tasks of the jobs with as few queries as possible.
+     * The identifiers of the jobs are bound in chunks to a single prepared statement,
+     * the last identifier being repeated to fill up the incomplete chunk.
+     */
+    private void loadTasks(List<ManagedJob> jobs) {
+        if (jobs.isEmpty()) {
+            return;
+        }
+        Map<Long, List<Task>> tasks = new HashMap<>();
+        try (Query q = createQuery(SqlCommand.FIND_TASKS_BY_JOBS)) {
+            final int chunkSize = SqlCommand.FIND_TASKS_BY_JOBS.getListSize();
+            for (int from = 0; from < jobs.size(); from += chunkSize) {
+                int to = Math.min(from + chunkSize, jobs.size());
+                for (int i = 0; i < chunkSize; i++) {
+                    q.setLong(i + 1, jobs.get(Math.min(from + i, to - 1)).getId());
+                }
+                q.queryForList(rs->{
+                    Task task = mappers.mapToTask(rs);
+                    tasks.computeIfAbsent(rs.getLong("job_id"), id->new ArrayList<>()).add(task);
+                    return task;
+                });
+            }
+        }
+        for (ManagedJob job: jobs) {
+            job.setTasks(tasks.getOrDefault(job.getId(), Collections.emptyList()));
         }
     }
     
@@ -295,6 +850,10 @@ public class ActiveWorkflowStorage extends JdbcSession implements WorkflowStorag
         return this.binaryMarshaller.marshal(object);
     }
     
+    private Object unmarshal(byte[] bytes) {
+        return this.binaryMarshaller.unmarshal(bytes, Object.class);
+    }
+    
     private String marshalToString(Object object) {
         return this.textMarshaller.marshal(object);
     }
@@ -16,26 +16,80 @@
 
 package io.github.i49.unite.core.storage.jdbc;
 
+import static io.github.i49.unite.core.message.Message.*;
+
+import java.sql.Connection;
+import java.sql.SQLException;
 import java.util.NoSuchElementException;
 
+import io.github.i49.unite.api.base.WorkflowException;
+
 /**
  * SQL dialect.
  * 
  * @author i49
  */
 public enum Dialect {
-    HSQLDB,
-    MYSQL
+    HSQLDB(false),
+    MYSQL(false),
+    POSTGRESQL(true)
     ;
     
+    private final boolean skipLocked;
+    
+    private Dialect(boolean skipLocked) {
+        this.skipLocked = skipLocked;
+    }
+    
     public String getSpecifier() {
         return name().toLowerCase();
     }
     
+    /**
+     * Returns whether the dialect can skip the rows locked by other transactions,
+     * with {@code SELECT ... FOR UPDATE SKIP LOCKED}.
+     * The READY jobs are claimed by {@link SqlCommand#CLAIM_NEXT_JOB} in such a dialect.
+     * 
+     * @return {@code true} if the dialect can skip locked rows.
+     */
+    public boolean supportsSkipLocked() {
+        return skipLocked;
+    }
+    
+    /**
+     * Returns the dialect of the database product.
+     * 
+     * @param product the product name reported by the JDBC driver.
+     * @return the dialect of the product.
+     * @throws NoSuchElementException if the product is not supported.
+     */
     public static Dialect ofProduct(String product) {
         if (product.equals("HSQL Database Engine")) {
             return HSQLDB;
+        } else if (product.equals("MySQL") || product.equals("MariaDB")) {
+            return MYSQL;
+        } else if (product.equals("PostgreSQL")) {
+            return POSTGRESQL;
         }
         throw new NoSuchElementException(product);
     }
+    
+    /**
+     * Returns the dialect of the database connected.
+     * 
+     * @param connection the connection to the database.
+     * @return the dialect of the database.
+     * @throws WorkflowException if the product is not supported or the database cannot be accessed.
+     */
+    public static Dialect of(Connection connection) {
+        String productName = null;
+        try {
+            productName = connection.getMetaData().getDatabaseProductName();
+            return ofProduct(productName);
+        } catch (SQLException e) {
+            throw new WorkflowException(REPOSITORY_ACCESS_ERROR_OCCURRED.toString(), e);
+        } catch (NoSuchElementException e) {
+            throw new WorkflowException(REPOSITORY_PRODUCT_UNSUPPORTED.with(productName));
+        }
+    }
 }
@@ -45,6 +45,30 @@ public class JdbcSession implements AutoCloseable {
         }
     }
     
+    /**
+     * Runs the given action in a single transaction.
+     * The transaction is committed if the action completes normally,
+     * or rolled back if the action throws an exception.
+     * 
+     * @param action the action to run.
+     */
+    public void runInTransaction(Runnable action) {
+        boolean autoCommit = getAutoCommit();
+        try {
+            setAutoCommit(false);
+            action.run();
+            connection.commit();
+        } catch (SQLException e) {
+            rollbackQuietly(e);
+            throw new WorkflowException(REPOSITORY_ACCESS_ERROR_OCCURRED.toString(), e);
+        } catch (RuntimeException | Error e) {
+            rollbackQuietly(e);
+            throw e;
+        } finally {
+            setAutoCommit(autoCommit);
+        }
+    }
+    
     /**
      * Returns the connection of this session;
      * 
@@ -53,4 +77,28 @@ public class JdbcSession implements AutoCloseable {
     public Connection getConnection() {
         return connection;
     }
+    
+    private boolean getAutoCommit() {
+        try {
+            return connection.getAutoCommit();
+        } catch (SQLException e) {
+            throw new WorkflowException(REPOSITORY_ACCESS_ERROR_OCCURRED.toString(), e);
+        }
+    }
+    
+    private void setAutoCommit(boolean autoCommit) {
+        try {
+            connection.setAutoCommit(autoCommit);
+        } catch (SQLException e) {
+            throw new WorkflowException(REPOSITORY_ACCESS_ERROR_OCCURRED.toString(), e);
+        }
+    }
+    
+    private void rollbackQuietly(Throwable cause) {
+        try {
+            connection.rollback();
+        } catch (SQLException e) {
+            cause.addSuppressed(e);
+        }
+    }
 }
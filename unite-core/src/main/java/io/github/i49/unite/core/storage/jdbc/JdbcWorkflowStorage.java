@@ -23,14 +23,21 @@ import java.sql.SQLException;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.Stream;
 
 import javax.sql.DataSource;
 
+import io.github.i49.unite.api.base.ParameterSet;
 import io.github.i49.unite.api.base.WorkflowException;
 import io.github.i49.unite.api.workflow.Job;
 import io.github.i49.unite.api.workflow.JobStatus;
 import io.github.i49.unite.api.workflow.Workflow;
+import io.github.i49.unite.core.storage.InProcessReadyJobChannel;
+import io.github.i49.unite.core.storage.ReadyJobChannel;
+import io.github.i49.unite.core.storage.ReadyJobListener;
 import io.github.i49.unite.core.storage.WorkflowStorage;
 import io.github.i49.unite.core.workflow.JobLink;
 import io.github.i49.unite.core.workflow.ManagedJob;
@@ -42,13 +49,47 @@ import io.github.i49.unite.core.workflow.ManagedJob;
  */
 public class JdbcWorkflowStorage implements WorkflowStorage {
     
-    @SuppressWarnings("unused")
     private static final Logger log = Logger.getLogger(JdbcWorkflowStorage.class.getName());
  
     private final DataSource dataSource;
+    private final ReadyJobChannel channel;
+    private final boolean ownsDataSource;
+    private boolean parameterIndexEnabled;
+    // detected on the first connection
+    private volatile Dialect dialect;
     
     public JdbcWorkflowStorage(DataSource dataSource) {
+        this(dataSource, InProcessReadyJobChannel.of(dataSource));
+    }
+    
+    public JdbcWorkflowStorage(DataSource dataSource, ReadyJobChannel channel) {
+        this(dataSource, channel, false);
+    }
+    
+    /**
+     * Constructs this storage.
+     * 
+     * @param dataSource the data source of the connections.
+     * @param channel the channel of the events that jobs have become READY.
+     * @param ownsDataSource {@code true} if the data source should be closed along with this storage.
+     */
+    public JdbcWorkflowStorage(DataSource dataSource, ReadyJobChannel channel, boolean ownsDataSource) {
         this.dataSource = dataSource;
+        this.channel = channel;
+        this.ownsDataSource = ownsDataSource;
+    }
+
+    /**
+     * Specifies whether the output parameters of the jobs are also stored entry by entry.
+     * This should be specified before this storage is used.
+     * 
+     * @param enabled {@code true} if the entries should be stored, which is {@code false} by default.
+     * @return this storage.
+     * @see ActiveWorkflowStorage#setParameterIndexEnabled(boolean)
+     */
+    public JdbcWorkflowStorage setParameterIndexEnabled(boolean enabled) {
+        this.parameterIndexEnabled = enabled;
+        return this;
     }
 
     @Override
@@ -107,6 +148,13 @@ public class JdbcWorkflowStorage implements WorkflowStorage {
         }
     }
     
+    @Override
+    public Optional<Job> claimNextReadyJob(String runnerId) {
+        try (ActiveWorkflowStorage s = connect()) {
+            return s.claimNextReadyJob(runnerId);
+        }
+    }
+    
     @Override
     public Job findJobById(long jobId) {
         try (ActiveWorkflowStorage s = connect()) {
@@ -128,6 +176,53 @@ public class JdbcWorkflowStorage implements WorkflowStorage {
         }
     }
     
+    @Override
+    public ParameterSet getInputParameters(long jobId) {
+        try (ActiveWorkflowStorage s = connect()) {
+            return s.getInputParameters(jobId);
+        }
+    }
+    
+    @Override
+    public ParameterSet getOutputParameters(long jobId) {
+        try (ActiveWorkflowStorage s = connect()) {
+            return s.getOutputParameters(jobId);
+        }
+    }
+    
+    @Override
+    public ParameterSet getOutputParameters(long jobId, Set<String> keys) {
+        try (ActiveWorkflowStorage s = connect()) {
+            return s.getOutputParameters(jobId, keys);
+        }
+    }
+    
+    @Override
+    public List<Job> findJobsByOutputRange(String key, double minimum, double maximum) {
+        try (ActiveWorkflowStorage s = connect()) {
+            return s.findJobsByOutputRange(key, minimum, maximum);
+        }
+    }
+    
+    @Override
+    public List<Job> findJobsByOutputText(String key, String value) {
+        try (ActiveWorkflowStorage s = connect()) {
+            return s.findJobsByOutputText(key, value);
+        }
+    }
+    
+    @Override
+    public List<String> getStandardOutput(long jobId) {
+        try (ActiveWorkflowStorage s = connect()) {
+            return s.getStandardOutput(jobId);
+        }
+    }
+    
+    @Override
+    public ReadyJobChannel.Subscription subscribeReadyJobs(ReadyJobListener listener) {
+        return channel.subscribe(listener);
+    }
+    
     @Override
     public List<JobLink> findLinksByTarget(ManagedJob target) {
         try (ActiveWorkflowStorage s = connect()) {
@@ -143,30 +238,63 @@ public class JdbcWorkflowStorage implements WorkflowStorage {
     }
     
     @Override
-    public void storeJob(Job job, JobStatus status, Map<String, Object> jobOutput, String[] standardOutput) {
+    public void storeJob(Job job, JobStatus status, Map<String, Object> jobOutput, Stream<String> standardOutput) {
         try (ActiveWorkflowStorage s = connect()) {
             s.storeJob(job, status, jobOutput, standardOutput);
         }
     }
     
+  
     @Override
-    public int updateJobStatusIfReady(long jobId) {
-        try (ActiveWorkflowStorage s = connect()) {
-            return s.updateJobStatusIfReady(jobId);
+    public void close() {
+        if (ownsDataSource && dataSource instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable)dataSource).close();
+            } catch (Exception e) {
+                log.log(Level.FINE, REPOSITORY_ACCESS_ERROR_WAS_IGNORED.toString(), e);
+            }
         }
     }
-  
+    
     // helper methods
     
     /**
      * Connects to the data source.
      */
     private ActiveWorkflowStorage connect() {
+        Connection connection = null;
         try {
-            Connection connection = this.dataSource.getConnection();
-            return new ActiveWorkflowStorage(connection);
+            connection = this.dataSource.getConnection();
+            return new ActiveWorkflowStorage(connection, getDialect(connection), channel, this)
+                    .setParameterIndexEnabled(parameterIndexEnabled);
         } catch (SQLException e) {
             throw new WorkflowException(REPOSITORY_ACCESS_ERROR_OCCURRED.toString(), e);
+        } catch (RuntimeException e) {
+            closeQuietly(connection);
+            throw e;
+        }
+    }
+    
+    /**
+     * Returns the dialect of the data source, which is detected only once.
+     */
+    private Dialect getDialect(Connection connection) {
+        Dialect dialect = this.dialect;
+        if (dialect == null) {
+            dialect = Dialect.of(connection);
+            this.dialect = dialect;
+        }
+        return dialect;
+    }
+    
+    private static void closeQuietly(Connection connection) {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            log.log(Level.FINE, REPOSITORY_ACCESS_ERROR_WAS_IGNORED.toString(), e);
         }
     }
 }
@@ -0,0 +1,192 @@
+/* 
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.i49.unite.core.storage.jdbc;
+
+import static io.github.i49.unite.core.message.Message.MAPPER_CANNOT_BE_RESOLVED;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.github.i49.unite.api.base.WorkflowException;
+import io.github.i49.unite.api.workflow.ParameterSetMapper;
+import io.github.i49.unite.core.storage.BinaryMarshaller;
+import io.github.i49.unite.core.storage.Marshaller;
+import io.github.i49.unite.core.workflow.mappers.KeyMapParameterSetMapper;
+
+/**
+ * Interns the {@link ParameterSetMapper} instances stored in the job links,
+ * so that the links sharing a mapper do not deserialize it again and again.
+ * 
+ * <p>
+ * A stateless mapper exposing itself as the {@code public static final} field named {@code INSTANCE}
+ * is stored only by its class name, without any binary.
+ * The built-in mappers, which are immutable, are looked up by the content of their binaries,
+ * and the same instance is returned for the same binary.
+ * The mappers of other classes are deserialized for each link, 
+ * because they are not required to be stateless nor thread-safe.
+ * </p>
+ */
+final class MapperInterner {
+    
+    private static final String INSTANCE_FIELD_NAME = "INSTANCE";
+    /** The maximum number of the binaries interned. */
+    private static final int MAXIMUM_ENTRIES = 1024;
+    /** The binaries larger than this are not interned. */
+    private static final int MAXIMUM_BINARY_LENGTH = 64 * 1024;
+    /** The names of the mapper classes whose instances can be shared. */
+    private static final Set<String> INTERNABLE_CLASS_NAMES = Collections.singleton(
+            KeyMapParameterSetMapper.class.getName());
+    
+    private static final MapperInterner instance = new MapperInterner();
+    
+    private final Marshaller<byte[]> binaryMarshaller;
+    private final ClassValue<Optional<ParameterSetMapper>> singletons;
+    private final Map<String, ParameterSetMapper> singletonsByName;
+    // guarded by itself
+    private final Map<Binary, ParameterSetMapper> interned;
+    
+    static MapperInterner getInstance() {
+        return instance;
+    }
+    
+    private MapperInterner() {
+        this.binaryMarshaller = BinaryMarshaller.getInstance();
+        this.singletons = new ClassValue<Optional<ParameterSetMapper>>() {
+            @Override
+            protected Optional<ParameterSetMapper> computeValue(Class<?> type) {
+                return findSingleton(type);
+            }
+        };
+        this.singletonsByName = new ConcurrentHashMap<>();
+        this.interned = new LinkedHashMap<Binary, ParameterSetMapper>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+            
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Binary, ParameterSetMapper> eldest) {
+                return size() > MAXIMUM_ENTRIES;
+            }
+        };
+    }
+    
+    /**
+     * Marshals the mapper to be stored.
+     * 
+     * @param mapper the mapper to marshal.
+     * @return the binary of the mapper, or {@code null} if the mapper is a singleton.
+     */
+    byte[] marshal(ParameterSetMapper mapper) {
+        if (isSingleton(mapper)) {
+            return null;
+        }
+        return binaryMarshaller.marshal(mapper);
+    }
+    
+    /**
+     * Unmarshals the stored mapper.
+     * 
+     * @param className the name of the mapper class.
+     * @param bytes the binary of the mapper, or {@code null} if the mapper is a singleton.
+     * @return the mapper, which may be shared with other links if it is a singleton or a built-in mapper.
+     */
+    ParameterSetMapper unmarshal(String className, byte[] bytes) {
+        if (bytes == null) {
+            return findSingleton(className);
+        }
+        if (!INTERNABLE_CLASS_NAMES.contains(className) || bytes.length > MAXIMUM_BINARY_LENGTH) {
+            return binaryMarshaller.unmarshal(bytes, ParameterSetMapper.class);
+        }
+        Binary key = new Binary(bytes);
+        synchronized (interned) {
+            ParameterSetMapper mapper = interned.get(key);
+            if (mapper != null) {
+                return mapper;
+            }
+        }
+        // Deserializes outside of the lock, the last one wins if raced.
+        ParameterSetMapper mapper = binaryMarshaller.unmarshal(bytes, ParameterSetMapper.class);
+        synchronized (interned) {
+            interned.put(key, mapper);
+        }
+        return mapper;
+    }
+    
+    private boolean isSingleton(ParameterSetMapper mapper) {
+        Optional<ParameterSetMapper> singleton = singletons.get(mapper.getClass());
+        return singleton.isPresent() && singleton.get() == mapper;
+    }
+    
+    private ParameterSetMapper findSingleton(String className) {
+        return singletonsByName.computeIfAbsent(className, name->{
+            try {
+                Optional<ParameterSetMapper> singleton = singletons.get(Class.forName(name));
+                if (singleton.isPresent()) {
+                    return singleton.get();
+                }
+                throw new WorkflowException(MAPPER_CANNOT_BE_RESOLVED.with(name));
+            } catch (ClassNotFoundException e) {
+                throw new WorkflowException(MAPPER_CANNOT_BE_RESOLVED.with(name), e);
+            }
+        });
+    }
+    
+    private static Optional<ParameterSetMapper> findSingleton(Class<?> type) {
+        try {
+            Field field = type.getField(INSTANCE_FIELD_NAME);
+            int modifiers = field.getModifiers();
+            if (Modifier.isStatic(modifiers) && Modifier.isFinal(modifiers) && field.getType() == type) {
+                return Optional.of((ParameterSetMapper)field.get(null));
+            }
+        } catch (NoSuchFieldException | IllegalAccessException e) {
+            // not a singleton
+        }
+        return Optional.empty();
+    }
+    
+    /**
+     * The key of a binary, which is compared by its content.
+     */
+    private static final class Binary {
+        
+        private final byte[] bytes;
+        private final int hash;
+        
+        Binary(byte[] bytes) {
+            this.bytes = bytes;
+            this.hash = Arrays.hashCode(bytes);
+        }
+        
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+        
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Binary)) {
+                return false;
+            }
+            Binary other = (Binary)obj;
+            return hash == other.hash && Arrays.equals(bytes, other.bytes);
+        }
+    }
+}
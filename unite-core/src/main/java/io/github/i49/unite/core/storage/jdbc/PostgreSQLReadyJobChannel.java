@@ -0,0 +1,232 @@
+/* 
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.i49.unite.core.storage.jdbc;
+
+import static io.github.i49.unite.core.message.Message.*;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.sql.DataSource;
+
+import io.github.i49.unite.core.storage.ReadyJobChannel;
+import io.github.i49.unite.core.storage.ReadyJobListener;
+
+/**
+ * The channel which delivers the events across processes 
+ * with {@code LISTEN} and {@code NOTIFY} of PostgreSQL.
+ * 
+ * <p>
+ * The events are published to all sessions listening on the database, including the one of this channel.
+ * While any listener is subscribed, a daemon thread keeps a connection of the data source
+ * listening on the channel and waits for the notifications.
+ * The notifications are received through {@code org.postgresql.PGConnection},
+ * which is looked up reflectively, so that the driver is needed only at runtime.
+ * The drivers older than 42.2.0, which cannot wait for the notifications, 
+ * are polled with a cheap query instead.
+ * </p>
+ * <p>
+ * The listeners are also notified whenever the thread has started listening,
+ * because the events published before may have been missed.
+ * </p>
+ */
+public class PostgreSQLReadyJobChannel implements ReadyJobChannel {
+
+    private static final Logger log = Logger.getLogger(PostgreSQLReadyJobChannel.class.getName());
+
+    static final String CHANNEL_NAME = "unite_ready_jobs";
+    
+    private static final String CONNECTION_CLASS_NAME = "org.postgresql.PGConnection";
+    private static final int WAIT_MILLIS = 500;
+    private static final long RETRY_INTERVAL_MILLIS = 5000;
+    private static final String POLLING_QUERY = "SELECT 1";
+    
+    private final DataSource dataSource;
+    private final List<ReadyJobListener> listeners = new CopyOnWriteArrayList<>();
+    // guarded by this
+    private Thread thread;
+    
+    /**
+     * Constructs this channel.
+     * 
+     * @param dataSource the data source of the PostgreSQL database.
+     */
+    public PostgreSQLReadyJobChannel(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+    
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>
+     * The failure to notify is just logged, 
+     * because the runners find the READY jobs by polling anyway.
+     * </p>
+     */
+    @Override
+    public void publish() {
+        try (Connection connection = dataSource.getConnection();
+             Query q = SqlCommand.NOTIFY_READY_JOBS.createQuery(connection, Dialect.POSTGRESQL)) {
+            q.setString(1, CHANNEL_NAME);
+            q.execute();
+        } catch (SQLException | RuntimeException e) {
+            log.log(Level.WARNING, READY_JOBS_CANNOT_BE_NOTIFIED.toString(), e);
+        }
+    }
+
+    @Override
+    public Subscription subscribe(ReadyJobListener listener) {
+        synchronized (this) {
+            listeners.add(listener);
+            if (thread == null) {
+                thread = new Thread(this::listen, "unite-ready-job-listener");
+                thread.setDaemon(true);
+                thread.start();
+            }
+        }
+        return ()->listeners.remove(listener);
+    }
+    
+    private void listen() {
+        try {
+            Method getNotifications;
+            try {
+                getNotifications = findNotificationsMethod();
+            } catch (ReflectiveOperationException e) {
+                log.log(Level.SEVERE, READY_JOBS_CANNOT_BE_LISTENED.toString(), e);
+                return;
+            }
+            do {
+                try (Connection connection = dataSource.getConnection()) {
+                    listen(connection, getNotifications);
+                    return;
+                } catch (SQLException e) {
+                    log.log(Level.WARNING, READY_JOBS_CANNOT_BE_LISTENED.toString(), e);
+                }
+                sleep(RETRY_INTERVAL_MILLIS);
+            } while (isSubscribed());
+        } finally {
+            exit();
+        }
+    }
+    
+    /**
+     * Finds the method receiving the notifications, 
+     * which waits for them if the driver supports.
+     */
+    private static Method findNotificationsMethod() throws ReflectiveOperationException {
+        Class<?> connectionClass = Class.forName(CONNECTION_CLASS_NAME);
+        try {
+            return connectionClass.getMethod("getNotifications", int.class);
+        } catch (NoSuchMethodException e) {
+            return connectionClass.getMethod("getNotifications");
+        }
+    }
+    
+    /**
+     * Listens on the connection until no listener is subscribed.
+     */
+    private void listen(Connection connection, Method getNotifications) throws SQLException {
+        Object target = connection.unwrap(getNotifications.getDeclaringClass());
+        connection.setAutoCommit(true);
+        try (Statement s = connection.createStatement()) {
+            s.execute("LISTEN " + CHANNEL_NAME);
+            try {
+                deliver();
+                boolean waiting = getNotifications.getParameterCount() > 0;
+                do {
+                    if (!waiting) {
+                        // The notifications are received only by the round trip to the server.
+                        s.execute(POLLING_QUERY);
+                    }
+                    Object[] notifications = (Object[])invoke(getNotifications, target, waiting);
+                    if (notifications != null && notifications.length > 0) {
+                        deliver();
+                    } else if (!waiting) {
+                        sleep(WAIT_MILLIS);
+                    }
+                } while (isSubscribed());
+            } finally {
+                // The connection may be returned to the pool.
+                s.execute("UNLISTEN " + CHANNEL_NAME);
+            }
+        }
+    }
+    
+    private static Object invoke(Method getNotifications, Object target, boolean waiting) throws SQLException {
+        try {
+            return waiting ? getNotifications.invoke(target, WAIT_MILLIS) : getNotifications.invoke(target);
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException) {
+                throw (SQLException)cause;
+            }
+            throw new SQLException(cause);
+        } catch (IllegalAccessException e) {
+            throw new SQLException(e);
+        }
+    }
+    
+    /**
+     * Notifies the listeners.
+     * The failure of a listener is just logged, so that the others are notified and this thread keeps listening.
+     */
+    private void deliver() {
+        for (ReadyJobListener listener: listeners) {
+            try {
+                listener.jobsBecameReady();
+            } catch (RuntimeException e) {
+                log.log(Level.WARNING, READY_JOB_LISTENER_FAILED.toString(), e);
+            }
+        }
+    }
+    
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            // Nobody should interrupt this thread, keeps listening.
+        }
+    }
+    
+    /**
+     * Checks if the current thread should keep listening.
+     * The thread exits when no listener is subscribed.
+     */
+    private synchronized boolean isSubscribed() {
+        if (thread != Thread.currentThread()) {
+            return false;
+        }
+        if (listeners.isEmpty()) {
+            thread = null;
+            return false;
+        }
+        return true;
+    }
+    
+    private synchronized void exit() {
+        if (thread == Thread.currentThread()) {
+            thread = null;
+        }
+    }
+}
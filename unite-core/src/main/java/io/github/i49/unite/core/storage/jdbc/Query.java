@@ -15,9 +15,11 @@
  */
 package io.github.i49.unite.core.storage.jdbc;
 
+import static io.github.i49.unite.core.message.Message.GENERATED_KEYS_ARE_MISSING;
 import static io.github.i49.unite.core.message.Message.INTERNAL_ERROR;
 import static io.github.i49.unite.core.message.Message.REPOSITORY_ACCESS_ERROR_OCCURRED;
 
+import java.io.InputStream;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -26,6 +28,7 @@ import java.util.List;
 import java.util.Optional;
 
 import io.github.i49.unite.api.base.WorkflowException;
+import io.github.i49.unite.core.storage.util.StatementCache;
 
 /**
  * SQL statement.
@@ -33,15 +36,36 @@ import io.github.i49.unite.api.base.WorkflowException;
 public class Query implements AutoCloseable {
     
     private final PreparedStatement statement;
+    private final StatementCache cache;
+    private final Object key;
     
     public Query(PreparedStatement statement) {
+        this(statement, null, null);
+    }
+    
+    /**
+     * Constructs this query with a statement which will be returned to the cache on close.
+     * 
+     * @param statement the prepared statement.
+     * @param cache the cache to which the statement belongs, can be {@code null}.
+     * @param key the key of the statement in the cache.
+     */
+    public Query(PreparedStatement statement, StatementCache cache, Object key) {
         this.statement = statement;
+        this.cache = cache;
+        this.key = key;
     }
     
     @Override
     public void close() {
         try {
-            statement.close();
+            if (cache != null) {
+                statement.clearParameters();
+                statement.clearBatch();
+                cache.checkIn(key, statement);
+            } else {
+                statement.close();
+            }
         } catch (SQLException e) {
             throwAccessError(e);
         }
@@ -65,6 +89,31 @@ public class Query implements AutoCloseable {
         return this;
     }
 
+    public Query setDouble(int index, double value) {
+        try {
+            statement.setDouble(index, value);
+        } catch (SQLException e) {
+            throwInternalError(e);
+        }
+        return this;
+    }
+
+    /**
+     * Sets the parameter to SQL {@code NULL}.
+     * 
+     * @param index the index of the parameter.
+     * @param sqlType the SQL type of the parameter defined in {@link java.sql.Types}.
+     * @return this query.
+     */
+    public Query setNull(int index, int sqlType) {
+        try {
+            statement.setNull(index, sqlType);
+        } catch (SQLException e) {
+            throwInternalError(e);
+        }
+        return this;
+    }
+
     public Query setString(int index, String value) {
         try {
             statement.setString(index, value);
@@ -83,6 +132,23 @@ public class Query implements AutoCloseable {
         return this;
     }
     
+    /**
+     * Sets the stream of the binary value, which the driver reads when the query is executed.
+     * 
+     * @param index the index of the parameter.
+     * @param stream the stream of the value.
+     * @param length the number of bytes in the stream.
+     * @return this query.
+     */
+    public Query setBinaryStream(int index, InputStream stream, long length) {
+        try {
+            statement.setBinaryStream(index, stream, length);
+        } catch (SQLException e) {
+            throwInternalError(e);
+        }
+        return this;
+    }
+    
     public Query setEnum(int index, Enum<?> value) {
         return setString(index, value.name());
     }
@@ -150,6 +216,57 @@ public class Query implements AutoCloseable {
         }
     }
     
+    /**
+     * Adds the current set of parameters to the batch of this query.
+     * 
+     * @return this query.
+     */
+    public Query addBatch() {
+        try {
+            statement.addBatch();
+        } catch (SQLException e) {
+            throwAccessError(e);
+        }
+        return this;
+    }
+    
+    /**
+     * Executes the batch of this query.
+     * 
+     * @return the update counts of the commands in the batch.
+     */
+    public int[] executeBatch() {
+        try {
+            return statement.executeBatch();
+        } catch (SQLException e) {
+            throwAccessError(e);
+            return null;
+        }
+    }
+    
+    /**
+     * Executes the batch of this query and returns the keys generated for each command.
+     * 
+     * @return the generated keys in the order of the commands in the batch.
+     */
+    public long[] executeBatchAndGenerateLongs() {
+        int[] counts = executeBatch();
+        long[] keys = new long[counts.length];
+        try (ResultSet rs = statement.getGeneratedKeys()) {
+            int i = 0;
+            while (i < keys.length && rs.next()) {
+                keys[i++] = rs.getLong(1);
+            }
+            if (i < keys.length) {
+                throw new WorkflowException(GENERATED_KEYS_ARE_MISSING.with(keys.length, i));
+            }
+            return keys;
+        } catch (SQLException e) {
+            throwAccessError(e);
+            return null;
+        }
+    }
+    
     private static void throwInternalError(SQLException e) {
         throw new WorkflowException(INTERNAL_ERROR.toString(), e);
     }
@@ -27,11 +27,13 @@ import io.github.i49.unite.api.workflow.WorkflowStatus;
 import io.github.i49.unite.core.storage.BinaryMarshaller;
 import io.github.i49.unite.core.storage.JsonBindingMarshaller;
 import io.github.i49.unite.core.storage.Marshaller;
+import io.github.i49.unite.core.storage.WorkflowStorage;
 import io.github.i49.unite.core.workflow.JobLink;
 import io.github.i49.unite.core.workflow.ManagedJob;
 import io.github.i49.unite.core.workflow.ManagedJobBuilder;
 import io.github.i49.unite.core.workflow.ManagedWorkflow;
 import io.github.i49.unite.core.workflow.ManagedWorkflowBuilder;
+import io.github.i49.unite.core.workflow.SimpleParameterSet;
 
 /**
  * A collection of the ResultSet mappers.
@@ -40,10 +42,17 @@ public class RowMappers {
     
     private final Marshaller<String> textMarshaller;
     private final Marshaller<byte[]> binaryMarshaller;
+    private final WorkflowStorage loader;
     
-    public RowMappers() {
+    /**
+     * Constructs these mappers.
+     * 
+     * @param loader the storage loading the contents of the mapped jobs on demand.
+     */
+    public RowMappers(WorkflowStorage loader) {
         this.textMarshaller = JsonBindingMarshaller.getInstance();
         this.binaryMarshaller = BinaryMarshaller.getInstance();
+        this.loader = loader;
     }
     
     /**
@@ -65,6 +74,12 @@ public class RowMappers {
     /**
      * Maps a {@link ResultSet} to a {@link ManagedJob}.
      * 
+     * <p>
+     * The result set must start with the columns of job_id, job_name, job_status and workflow_id.
+     * The input, the output and the standard output of the job are loaded 
+     * only when they are requested, unless assigned later by the caller.
+     * </p>
+     * 
      * @param rs the result set.
      * @return the newly created job.
      * @throws SQLException if a data access error has occurred.
@@ -73,26 +88,41 @@ public class RowMappers {
         final long id = rs.getLong(1);
         final String name = rs.getString(2);
         final JobStatus status = JobStatus.valueOf(rs.getString(3));
-        final ParameterSet inputParameters = unmarshal(rs.getBytes(4), ParameterSet.class);
-        final ParameterSet outputParameters = unmarshal(rs.getBytes(5), ParameterSet.class);
-        final String standardOutput = rs.getString(6);
-        ManagedJobBuilder builder = new ManagedJobBuilder(name);
-        if (inputParameters != null) {
-            builder.input(inputParameters);
-        }
-        ManagedJob job = builder.build();
+        ManagedJob job = new ManagedJobBuilder(name).build();
         job.setId(id);
         job.setStatus(status);
-        job.setWorkflowId(rs.getLong(7));
-        if (outputParameters != null) {
-            job.setOutputParamters(outputParameters);
-        }
-        if (standardOutput != null) {
-            job.setStandardOutput(unmarshal(standardOutput, String[].class));
-        }
+        job.setWorkflowId(rs.getLong(4));
+        job.setInputParametersLoader(()->loader.getInputParameters(id));
+        job.setOutputParametersLoader(()->loader.getOutputParameters(id));
+        job.setStandardOutputLoader(()->loader.getStandardOutput(id));
         return job;
     }
     
+    /**
+     * Maps a {@link ResultSet} to a {@link ManagedJob} about to run, 
+     * which has the input in the fifth column.
+     * 
+     * @param rs the result set.
+     * @return the newly created job.
+     * @throws SQLException if a data access error has occurred.
+     */
+    public ManagedJob mapToJobToRun(ResultSet rs) throws SQLException {
+        ManagedJob job = mapToJob(rs);
+        job.setInputParameters(mapToParameterSet(rs.getBytes(5)));
+        return job;
+    }
+    
+    /**
+     * Maps the stored binary to a {@link ParameterSet}.
+     * 
+     * @param bytes the stored binary, can be {@code null}.
+     * @return the parameter set, empty if the binary is {@code null}.
+     */
+    public ParameterSet mapToParameterSet(byte[] bytes) {
+        ParameterSet parameters = unmarshal(bytes, ParameterSet.class);
+        return (parameters != null) ? parameters : new SimpleParameterSet();
+    }
+    
     public Task mapToTask(ResultSet rs) throws SQLException {
         final String className = rs.getString(3);
         final String params = rs.getString(4);
@@ -113,6 +143,7 @@ public class RowMappers {
     
     /**
      * Returns the mapper that maps a {@link ResultSet} to a {@link JobLink}.
+     * The output of the source job is left to be assigned by the caller.
      * 
      * @param targetJob the target job of the link.
      * @return the mapper.
@@ -120,8 +151,8 @@ public class RowMappers {
     public RowMapper<JobLink> mappingToJobLink(ManagedJob targetJob) {
         return rs->{
             ManagedJob sourceJob = mapToJob(rs);
-            byte[] bytes = rs.getBytes(9); 
-            ParameterSetMapper mapper = unmarshal(bytes, ParameterSetMapper.class);
+            ParameterSetMapper mapper = MapperInterner.getInstance().unmarshal(
+                    rs.getString("mapper_class"), rs.getBytes("mapper_object"));
             return new JobLink(sourceJob, targetJob, mapper);
         };
     }
@@ -23,44 +23,109 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
 import java.util.MissingResourceException;
 import java.util.Properties;
 
+import io.github.i49.unite.core.storage.util.StatementCache;
+
 /**
  * All SQL commands used by {@link JdbcWorkflowStorage}.
+ * 
+ * <p>
+ * The statements are defined in {@code sql.properties}.
+ * The statements which perform better in another form for a {@link Dialect}
+ * are overridden in {@code sql-<dialect>.properties}, for example {@code sql-mysql.properties}.
+ * The statements of all dialects are resolved once when this class is loaded.
+ * </p>
  */
 public enum SqlCommand {
 
+    CLAIM_JOB,
+    CLAIM_NEXT_JOB,
+    
+    COMPLETE_JOB,
+
     COUNT_JOBS,
     COUNT_JOBS_BY_STATUS,
     COUNT_WORKFLOWS,
     
+    DECREMENT_PENDING_DEPENDENCIES,
+    
     DELETE_JOB_LINKS,
+    DELETE_JOB_PARAMETERS,
+    DELETE_JOB_PARAMETERS_BY_JOB,
     DELETE_JOBS,
+    DELETE_STANDARD_OUTPUT,
+    DELETE_STANDARD_OUTPUTS,
     DELETE_TASKS,
     DELETE_WORKFLOWS,
     
+    FIND_CLAIMABLE_JOB_ID,
     FIND_FIRST_JOB_BY_STATUS,
     FIND_JOB_BY_ID,
+    FIND_JOB_INPUT,
+    FIND_JOB_OUTPUT,
+    FIND_JOB_OUTPUT_ENTRIES(10),
     FIND_JOB_STATUS_BY_ID,
+    FIND_JOB_TO_RUN,
+    FIND_JOBS_BY_OUTPUT_RANGE,
+    FIND_JOBS_BY_OUTPUT_TEXT,
     FIND_JOBS_BY_STATUS,
     FIND_LINKS_BY_TARGET,
     FIND_NEXT_JOBS,
-    FIND_TASK,
+    FIND_OUTPUT_ENTRIES_BY_TARGET(10),
+    FIND_OUTPUTS_BY_TARGET,
+    FIND_STANDARD_OUTPUT,
+    FIND_TASKS_BY_JOBS(100),
     FIND_WORKFLOW_BY_ID,
 
     INSERT_JOB,
     INSERT_JOB_LINK,
+    INSERT_JOB_PARAMETER,
+    INSERT_STANDARD_OUTPUT,
     INSERT_TASK,
     INSERT_WORKFLOW,
     
+    NOTIFY_READY_JOBS,
+    
+    PROMOTE_SUCCESSORS,
+    
     UPDATE_JOB,
-    UPDATE_JOB_STATUS,
-    UPDATE_JOB_STATUS_IF_READY
+    UPDATE_JOB_STATUS
     ;
 
     private static final String RESOURCE_NAME = "sql.properties";
-    private static final Properties props = loadStatements();
+    private static final String LIST_PLACEHOLDER = "{0}";
+    private static final Map<Dialect, String[]> statements = resolveStatements();
+
+    private final int listSize;
+    
+    private SqlCommand() {
+        this(0);
+    }
+    
+    /**
+     * Constructs a command which has a list of parameters.
+     * 
+     * @param listSize the number of the parameters substituted for the list placeholder. 
+     */
+    private SqlCommand(int listSize) {
+        this.listSize = listSize;
+    }
+    
+    /**
+     * Returns the number of the parameters in the list of this command.
+     * The list placeholder in the SQL is expanded to this number of parameters,
+     * so that the statement can be prepared once and reused.
+     * 
+     * @return the number of the parameters in the list, or 0 if this command has no list.
+     */
+    public int getListSize() {
+        return listSize;
+    }
 
     /**
      * Creates a prepared statement for this command.
@@ -69,35 +134,98 @@ public enum SqlCommand {
      * @return newly created prepared statement.
      * @throws SQLException if data access error has occurred. 
      */
-    private PreparedStatement prepare(Connection connection) throws SQLException {
+    private PreparedStatement prepare(Connection connection, Dialect dialect) throws SQLException {
         if (this == INSERT_WORKFLOW || this == INSERT_JOB) {
-            return connection.prepareStatement(getSql(), Statement.RETURN_GENERATED_KEYS);
+            return connection.prepareStatement(getSql(dialect), Statement.RETURN_GENERATED_KEYS);
         } else {
-            return connection.prepareStatement(getSql());
+            return connection.prepareStatement(getSql(dialect));
         }
     }
     
-    public Query createQuery(Connection connection) throws SQLException {
-        PreparedStatement statement = prepare(connection);
-        return new Query(statement);
+    /**
+     * Creates a query for this command.
+     * The prepared statement is taken from the statement cache of the connection if available.
+     * 
+     * @param connection the database connection.
+     * @param dialect the dialect of the database.
+     * @return newly created query.
+     * @throws SQLException if data access error has occurred. 
+     */
+    public Query createQuery(Connection connection, Dialect dialect) throws SQLException {
+        StatementCache cache = StatementCache.of(connection);
+        if (cache == null) {
+            return new Query(prepare(connection, dialect));
+        }
+        PreparedStatement statement = cache.checkOut(this);
+        if (statement == null) {
+            statement = prepare(connection, dialect);
+        }
+        return new Query(statement, cache, this);
     }
     
-    public String getSql() {
-        String sql = props.getProperty(name());
+    /**
+     * Returns the SQL of this command for the dialect.
+     * 
+     * @param dialect the dialect of the database.
+     * @return the SQL of this command.
+     * @throws MissingResourceException if the SQL is not defined.
+     */
+    public String getSql(Dialect dialect) {
+        String sql = statements.get(dialect)[ordinal()];
         if (sql == null) {
             throw new MissingResourceException(STATEMENT_IS_UNDEFINED.with(name()), getClass().getName(), name());
         }
         return sql;
     }
     
-    private static Properties loadStatements() {
+    /**
+     * Resolves the SQL of all commands for each dialect when this class is loaded,
+     * so that no lookup nor expansion is needed when the statements are prepared.
+     * 
+     * @return the SQL of the commands indexed by their ordinals, for each dialect. 
+     */
+    private static Map<Dialect, String[]> resolveStatements() {
+        Properties common = loadStatements(RESOURCE_NAME, null);
+        Map<Dialect, String[]> map = new EnumMap<>(Dialect.class);
+        for (Dialect dialect: Dialect.values()) {
+            String resourceName = "sql-" + dialect.getSpecifier() + ".properties";
+            Properties props = loadStatements(resourceName, common);
+            SqlCommand[] commands = values();
+            String[] sqls = new String[commands.length];
+            for (SqlCommand command: commands) {
+                sqls[command.ordinal()] = command.expand(props.getProperty(command.name()));
+            }
+            map.put(dialect, sqls);
+        }
+        return map;
+    }
+    
+    private String expand(String sql) {
+        if (sql != null && listSize > 0) {
+            sql = sql.replace(LIST_PLACEHOLDER, String.join(", ", Collections.nCopies(listSize, "?")));
+        }
+        return sql;
+    }
+    
+    /**
+     * Loads the statements from the resource.
+     * 
+     * @param resourceName the name of the resource.
+     * @param defaults the statements used if not overridden, or {@code null} if the resource is mandatory.
+     * @return the statements loaded.
+     */
+    private static Properties loadStatements(String resourceName, Properties defaults) {
         Class<SqlCommand> theClass = SqlCommand.class;
-        try (InputStream inStream = theClass.getResourceAsStream(RESOURCE_NAME)) {
-            Properties props = new Properties();
-            props.load(inStream);
+        try (InputStream inStream = theClass.getResourceAsStream(resourceName)) {
+            Properties props = new Properties(defaults);
+            if (inStream != null) {
+                props.load(inStream);
+            } else if (defaults == null) {
+                throw new IOException(resourceName);
+            }
             return props;
         } catch (IOException e) {
-            throw new MissingResourceException(RESOURCE_IS_MISSING.with(RESOURCE_NAME), theClass.getName(), null);
+            throw new MissingResourceException(RESOURCE_IS_MISSING.with(resourceName), theClass.getName(), null);
         }
     }
 }
@@ -25,11 +25,9 @@ import java.io.Reader;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.sql.Connection;
-import java.sql.DatabaseMetaData;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.List;
-import java.util.NoSuchElementException;
 import java.util.stream.Collectors;
 
 import io.github.i49.unite.api.base.WorkflowException;
@@ -51,7 +49,7 @@ public class SqlScriptRunner {
      */
     public SqlScriptRunner(Connection connection) {
         this.connection = connection;
-        this.dialect = guessDialect(connection);
+        this.dialect = Dialect.of(connection);
     }
 
     /**
@@ -99,19 +97,6 @@ public class SqlScriptRunner {
         return whole.replaceAll("/\\*.*?\\*/", "").split(";");
     }
     
-    private static Dialect guessDialect(Connection connection) {
-        String productName = null;
-        try {
-            DatabaseMetaData metadata = connection.getMetaData();
-            productName = metadata.getDatabaseProductName();
-            return Dialect.ofProduct(productName);
-        } catch (SQLException e) {
-            throw new WorkflowException(REPOSITORY_ACCESS_ERROR_OCCURRED.toString(), e);
-        } catch (NoSuchElementException e) {
-            throw new WorkflowException(REPOSITORY_PRODUCT_UNSUPPORTED.with(productName));
-        }
-    }
-    
     private String getSqlResourceName(String baseName, Dialect dialect) {
         StringBuilder b = new StringBuilder(baseName);
         b.append("-").append(dialect.getSpecifier()).append(".sql");
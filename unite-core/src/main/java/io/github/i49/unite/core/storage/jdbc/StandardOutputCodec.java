@@ -0,0 +1,94 @@
+/* 
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.i49.unite.core.storage.jdbc;
+
+import static io.github.i49.unite.core.message.Message.*;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import io.github.i49.unite.api.base.WorkflowException;
+
+/**
+ * Encodes the standard output of jobs into the compressed binary stored in the database.
+ * 
+ * <p>
+ * The content is a GZIP stream of the lines, each as its length and UTF-8 bytes,
+ * followed by the length of -1 which marks the end of the lines.
+ * The number of the lines is not written ahead so that the lines can be encoded while being read.
+ * </p>
+ */
+final class StandardOutputCodec {
+    
+    private static final int BUFFER_SIZE = 8192;
+    private static final int END_OF_LINES = -1;
+
+    /**
+     * Compresses the lines while reading them.
+     * 
+     * @param lines the iterator over the lines to compress.
+     * @param content the stream to which the compressed content is written, which is closed by this method.
+     * @throws IOException if an I/O error occurred while writing the content.
+     */
+    static void encode(Iterator<String> lines, OutputStream content) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new GZIPOutputStream(content, BUFFER_SIZE), BUFFER_SIZE))) {
+            while (lines.hasNext()) {
+                byte[] encoded = lines.next().getBytes(StandardCharsets.UTF_8);
+                out.writeInt(encoded.length);
+                out.write(encoded);
+            }
+            out.writeInt(END_OF_LINES);
+        }
+    }
+    
+    /**
+     * Decompresses the lines while reading the content.
+     * 
+     * @param content the stream of the compressed content.
+     * @return the unmodifiable list of the lines.
+     */
+    static List<String> decode(InputStream content) {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new GZIPInputStream(content, BUFFER_SIZE), BUFFER_SIZE))) {
+            List<String> lines = new ArrayList<>();
+            int length;
+            while ((length = in.readInt()) != END_OF_LINES) {
+                byte[] encoded = new byte[length];
+                in.readFully(encoded);
+                lines.add(new String(encoded, StandardCharsets.UTF_8));
+            }
+            return Collections.unmodifiableList(lines);
+        } catch (IOException e) {
+            throw new WorkflowException(BINARY_CONTENT_IS_MALFORMED.toString(), e);
+        }
+    }
+    
+    private StandardOutputCodec() {
+    }
+}
@@ -0,0 +1,399 @@
+/* 
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.unite.core.storage.memory;
+
+import static io.github.i49.unite.core.message.Message.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import io.github.i49.unite.api.base.ParameterSet;
+import io.github.i49.unite.api.base.WorkflowException;
+import io.github.i49.unite.api.workflow.Job;
+import io.github.i49.unite.api.workflow.JobStatus;
+import io.github.i49.unite.api.workflow.Workflow;
+import io.github.i49.unite.api.workflow.WorkflowStatus;
+import io.github.i49.unite.core.storage.InProcessReadyJobChannel;
+import io.github.i49.unite.core.storage.ParameterType;
+import io.github.i49.unite.core.storage.ReadyJobChannel;
+import io.github.i49.unite.core.storage.ReadyJobListener;
+import io.github.i49.unite.core.storage.WorkflowStorage;
+import io.github.i49.unite.core.workflow.JobLink;
+import io.github.i49.unite.core.workflow.ManagedJob;
+import io.github.i49.unite.core.workflow.ManagedJobBuilder;
+import io.github.i49.unite.core.workflow.ManagedWorkflow;
+import io.github.i49.unite.core.workflow.PrimitiveParameterSet;
+import io.github.i49.unite.core.workflow.SimpleParameterSet;
+
+/**
+ * The storage which keeps all workflows in memory.
+ * 
+ * <p>
+ * Workflows, jobs and links are kept as they are given, without any marshalling.
+ * Jobs are indexed by their status in the order of their identifiers,
+ * and links are indexed by both of their ends, 
+ * so that the runners can find the next job and its successors without scanning.
+ * All operations are serialized by the monitor of this storage,
+ * and the listeners of READY jobs are notified outside of the monitor.
+ * </p>
+ * <p>
+ * The jobs and the parameters returned are copies of the stored ones,
+ * so that the callers cannot change the stored jobs in place, as with the JDBC storage.
+ * The values of the parameters themselves are not copied.
+ * A single instance can be shared by a repository and runners in the same process.
+ * </p>
+ * 
+ * @author i49
+ */
+public class InMemoryWorkflowStorage implements WorkflowStorage {
+
+    private long lastWorkflowId;
+    private long lastJobId;
+    
+    private final Map<Long, ManagedWorkflow> workflows = new HashMap<>();
+    // Sorted so that the jobs found by their outputs are in the order of their identifiers.
+    private final NavigableMap<Long, ManagedJob> jobs = new TreeMap<>();
+    private final Map<JobStatus, NavigableMap<Long, ManagedJob>> jobsByStatus = new EnumMap<>(JobStatus.class);
+    private final Map<Long, List<JobLink>> linksBySource = new HashMap<>();
+    private final Map<Long, List<JobLink>> linksByTarget = new HashMap<>();
+    private final Map<Long, Integer> pendingDependencies = new HashMap<>();
+    private final ReadyJobChannel channel;
+    private boolean parameterIndexEnabled;
+    
+    public InMemoryWorkflowStorage() {
+        this(new InProcessReadyJobChannel());
+    }
+    
+    public InMemoryWorkflowStorage(ReadyJobChannel channel) {
+        this.channel = channel;
+        for (JobStatus status: JobStatus.values()) {
+            jobsByStatus.put(status, new TreeMap<>());
+        }
+    }
+    
+    /**
+     * Specifies whether the jobs can be found by their outputs,
+     * as the JDBC storage with the parameter index does.
+     * 
+     * @param enabled {@code true} if the jobs can be found by their outputs, which is {@code false} by default.
+     * @return this storage.
+     */
+    public InMemoryWorkflowStorage setParameterIndexEnabled(boolean enabled) {
+        this.parameterIndexEnabled = enabled;
+        return this;
+    }
+    
+    @Override
+    public void format() {
+        // Nothing to do.
+    }
+
+    @Override
+    public synchronized void clear() {
+        workflows.clear();
+        jobs.clear();
+        jobsByStatus.values().forEach(Map::clear);
+        linksBySource.clear();
+        linksByTarget.clear();
+        pendingDependencies.clear();
+    }
+
+    @Override
+    public void addWorkflow(Workflow workflow) {
+        synchronized (this) {
+            ManagedWorkflow managed = (ManagedWorkflow)workflow;
+            managed.setStatus(WorkflowStatus.READY);
+            managed.setId(++lastWorkflowId);
+            workflows.put(managed.getId(), managed);
+            for (ManagedJob job: managed.getManagedJobs()) {
+                job.setId(++lastJobId);
+                job.setWorkflowId(managed.getId());
+                jobs.put(job.getId(), job);
+                int dependencies = managed.getDependenciesOf(job).size();
+                if (dependencies == 0) {
+                    changeStatus(job, JobStatus.READY);
+                } else {
+                    pendingDependencies.put(job.getId(), dependencies);
+                    changeStatus(job, JobStatus.WAITING);
+                }
+            }
+            for (JobLink link: managed.getJobLinks()) {
+                linksBySource.computeIfAbsent(link.getSource().getId(), id->new ArrayList<>()).add(link);
+                linksByTarget.computeIfAbsent(link.getTarget().getId(), id->new ArrayList<>()).add(link);
+            }
+        }
+        channel.publish();
+    }
+
+    @Override
+    public synchronized long countWorkflows() {
+        return workflows.size();
+    }
+
+    @Override
+    public synchronized long countJobs() {
+        return jobs.size();
+    }
+
+    @Override
+    public synchronized long countJobsWithStatus(JobStatus status) {
+        return jobsByStatus.get(status).size();
+    }
+
+    @Override
+    public synchronized Job findJobById(long id) {
+        return copyOf(getJob(id));
+    }
+
+    @Override
+    public synchronized List<Job> findJobsByStatus(JobStatus status) {
+        List<Job> found = new ArrayList<>();
+        for (ManagedJob job: jobsByStatus.get(status).values()) {
+            found.add(copyOf(job));
+        }
+        return found;
+    }
+
+    @Override
+    public synchronized Optional<Job> findFirstJobByStatus(JobStatus status) {
+        NavigableMap<Long, ManagedJob> found = jobsByStatus.get(status);
+        if (found.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(copyOf(found.firstEntry().getValue()));
+    }
+
+    @Override
+    public synchronized Optional<Job> claimNextReadyJob(String runnerId) {
+        Map.Entry<Long, ManagedJob> first = jobsByStatus.get(JobStatus.READY).firstEntry();
+        if (first == null) {
+            return Optional.empty();
+        }
+        ManagedJob job = first.getValue();
+        changeStatus(job, JobStatus.RUNNING);
+        return Optional.of(copyOf(job));
+    }
+
+    @Override
+    public synchronized JobStatus getJobStatus(long id) {
+        return getJob(id).getStatus();
+    }
+
+    @Override
+    public synchronized Workflow getWorkflow(long id) {
+        ManagedWorkflow workflow = workflows.get(id);
+        if (workflow == null) {
+            throw new NoSuchElementException();
+        }
+        return workflow;
+    }
+
+    @Override
+    public synchronized ParameterSet getInputParameters(long id) {
+        return copyOf(getJob(id).getInputParameters());
+    }
+
+    @Override
+    public synchronized ParameterSet getOutputParameters(long id) {
+        return copyOf(getJob(id).getOutputParameters());
+    }
+
+    @Override
+    public synchronized ParameterSet getOutputParameters(long id, Set<String> keys) {
+        ParameterSet output = getJob(id).getOutputParameters();
+        ParameterSet found = new SimpleParameterSet();
+        for (String key: keys) {
+            if (output.containsKey(key)) {
+                found.put(key, output.get(key));
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public synchronized List<Job> findJobsByOutputRange(String key, double minimum, double maximum) {
+        checkParameterIndexEnabled();
+        return findJobsByOutput(key, value->{
+            Double number = ParameterType.toNumber(value);
+            return number != null && number >= minimum && number < maximum;
+        });
+    }
+
+    @Override
+    public synchronized List<Job> findJobsByOutputText(String key, String value) {
+        checkParameterIndexEnabled();
+        return findJobsByOutput(key, found->value.equals(ParameterType.toText(found)));
+    }
+
+    @Override
+    public synchronized List<String> getStandardOutput(long id) {
+        return getJob(id).getStandardOutput();
+    }
+
+    @Override
+    public ReadyJobChannel.Subscription subscribeReadyJobs(ReadyJobListener listener) {
+        return channel.subscribe(listener);
+    }
+
+    @Override
+    public synchronized List<JobLink> findLinksByTarget(ManagedJob target) {
+        List<JobLink> found = new ArrayList<>();
+        for (JobLink link: linksByTarget.getOrDefault(target.getId(), Collections.emptyList())) {
+            found.add(new JobLink(copyOf(link.getSource()), copyOf(link.getTarget()), link.getMapper()));
+        }
+        return found;
+    }
+
+    @Override
+    public synchronized List<Long> findNextJobs(Job job) {
+        List<Long> next = new ArrayList<>();
+        for (JobLink link: linksBySource.getOrDefault(job.getId(), Collections.emptyList())) {
+            next.add(link.getTarget().getId());
+        }
+        return next;
+    }
+
+    @Override
+    public void storeJob(Job job, JobStatus status, Map<String, Object> jobOutput, Stream<String> standardOutput) {
+        List<String> lines = (standardOutput != null) ? standardOutput.collect(Collectors.toList()) : null;
+        int promoted = 0;
+        synchronized (this) {
+            ManagedJob stored = getJob(job.getId());
+            if (jobOutput instanceof ParameterSet) {
+                stored.setOutputParamters(copyOf((ParameterSet)jobOutput));
+            } else if (jobOutput != null) {
+                SimpleParameterSet parameters = new SimpleParameterSet();
+                parameters.putAll(jobOutput);
+                stored.setOutputParamters(parameters);
+            }
+            if (lines != null) {
+                stored.setStandardOutput(lines);
+            }
+            if (status == JobStatus.COMPLETED && stored.getStatus() != JobStatus.COMPLETED) {
+                changeStatus(stored, status);
+                promoted = promoteSuccessors(stored);
+            } else {
+                changeStatus(stored, status);
+            }
+        }
+        if (promoted > 0) {
+            channel.publish();
+        }
+    }
+
+    /**
+     * Decrements the pending dependencies of the successors of the completed job,
+     * and makes READY the successors which have no more pending dependencies.
+     * 
+     * @param job the job completed.
+     * @return the number of the successors made READY.
+     */
+    private int promoteSuccessors(ManagedJob job) {
+        int promoted = 0;
+        for (JobLink link: linksBySource.getOrDefault(job.getId(), Collections.emptyList())) {
+            ManagedJob target = link.getTarget();
+            int remaining = pendingDependencies.merge(target.getId(), -1, Integer::sum);
+            if (remaining == 0) {
+                pendingDependencies.remove(target.getId());
+                if (target.getStatus() == JobStatus.WAITING) {
+                    changeStatus(target, JobStatus.READY);
+                    promoted++;
+                }
+            }
+        }
+        return promoted;
+    }
+    
+    /**
+     * Finds the jobs whose output has the entry of the key satisfying the condition.
+     */
+    private List<Job> findJobsByOutput(String key, Predicate<Object> condition) {
+        List<Job> found = new ArrayList<>();
+        for (ManagedJob job: jobs.values()) {
+            ParameterSet output = job.getOutputParameters();
+            if (output.containsKey(key) && condition.test(output.get(key))) {
+                found.add(copyOf(job));
+            }
+        }
+        return found;
+    }
+    
+    private void checkParameterIndexEnabled() {
+        if (!parameterIndexEnabled) {
+            throw new WorkflowException(PARAMETER_INDEX_IS_DISABLED.toString());
+        }
+    }
+    
+    private ManagedJob getJob(long id) {
+        ManagedJob job = jobs.get(id);
+        if (job == null) {
+            throw new NoSuchElementException();
+        }
+        return job;
+    }
+    
+    /**
+     * Changes the status of the job, keeping the index up to date.
+     */
+    /**
+     * Copies the stored job, sharing only the immutable tasks and standard output.
+     */
+    private static ManagedJob copyOf(ManagedJob job) {
+        ManagedJob copy = new ManagedJobBuilder(job.getName()).build();
+        copy.setId(job.getId());
+        copy.setStatus(job.getStatus());
+        copy.setWorkflowId(job.getWorkdlowId());
+        copy.setTasks(job.getTasks());
+        copy.setInputParameters(copyOf(job.getInputParameters()));
+        copy.setOutputParamters(copyOf(job.getOutputParameters()));
+        copy.setStandardOutput(job.getStandardOutput());
+        return copy;
+    }
+    
+    /**
+     * Copies the parameters, keeping {@link PrimitiveParameterSet} unboxed.
+     */
+    private static ParameterSet copyOf(ParameterSet parameters) {
+        if (parameters instanceof PrimitiveParameterSet) {
+            return new PrimitiveParameterSet(parameters);
+        }
+        SimpleParameterSet copy = new SimpleParameterSet();
+        copy.putAll(parameters);
+        return copy;
+    }
+    
+    private void changeStatus(ManagedJob job, JobStatus status) {
+        JobStatus current = job.getStatus();
+        if (current != null) {
+            jobsByStatus.get(current).remove(job.getId());
+        }
+        job.setStatus(status);
+        jobsByStatus.get(status).put(job.getId(), job);
+    }
+}
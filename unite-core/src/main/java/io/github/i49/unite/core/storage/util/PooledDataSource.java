@@ -0,0 +1,579 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.unite.core.storage.util;
+
+import static io.github.i49.unite.core.message.Message.*;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.sql.DataSource;
+
+/**
+ * A {@link DataSource} which keeps a bounded pool of physical connections
+ * obtained from another data source.
+ *
+ * <p>
+ * Closing a connection borrowed from this data source returns the physical
+ * connection to the pool instead of closing it.
+ * Idle connections are validated when they are borrowed
+ * unless they were used within the validation interval,
+ * and closed when they stay idle longer than the idle timeout
+ * as long as the pool has more connections than the minimum size.
+ * The expired connections are looked for whenever a connection is borrowed or returned.
+ * </p>
+ *
+ * <p>
+ * Each physical connection owns a {@link StatementCache},
+ * which is available through {@link Connection#unwrap(Class)}.
+ * </p>
+ *
+ * @author i49
+ */
+public class PooledDataSource implements DefaultDataSource, AutoCloseable {
+
+    private static final Logger log = Logger.getLogger(PooledDataSource.class.getName());
+
+    public static final int DEFAULT_MINIMUM_SIZE = 0;
+    public static final int DEFAULT_MAXIMUM_SIZE = 10;
+    public static final int DEFAULT_STATEMENT_CACHE_SIZE = 32;
+
+    private final DataSource source;
+    private final int minimumSize;
+    private final int maximumSize;
+
+    private Duration idleTimeout = Duration.ofMinutes(10);
+    private Duration maximumWait = Duration.ofSeconds(30);
+    private int validationTimeout = 5;
+    private Duration validationInterval = Duration.ofMillis(500);
+    private int statementCacheSize = DEFAULT_STATEMENT_CACHE_SIZE;
+
+    // Guarded by this object.
+    private final Deque<PooledConnection> idleConnections = new ArrayDeque<>();
+    private int totalConnections;
+    private boolean closed;
+
+    private final AtomicLong createdCount = new AtomicLong();
+    private final AtomicLong destroyedCount = new AtomicLong();
+    private final AtomicLong borrowedCount = new AtomicLong();
+    private final AtomicLong waitedCount = new AtomicLong();
+    private final AtomicLong invalidatedCount = new AtomicLong();
+    private final AtomicLong statementCacheHits = new AtomicLong();
+    private final AtomicLong statementCacheMisses = new AtomicLong();
+
+    /**
+     * Constructs this data source with the default pool size.
+     *
+     * @param source the data source providing physical connections.
+     */
+    public PooledDataSource(DataSource source) {
+        this(source, DEFAULT_MINIMUM_SIZE, DEFAULT_MAXIMUM_SIZE);
+    }
+
+    /**
+     * Constructs this data source.
+     *
+     * @param source the data source providing physical connections.
+     * @param minimumSize the number of connections to be kept even if they are idle.
+     * @param maximumSize the maximum number of connections including borrowed ones.
+     * @throws IllegalArgumentException if the sizes are invalid.
+     */
+    public PooledDataSource(DataSource source, int minimumSize, int maximumSize) {
+        if (minimumSize < 0 || maximumSize < 1 || minimumSize > maximumSize) {
+            throw new IllegalArgumentException(POOL_SIZE_IS_INVALID.with(minimumSize, maximumSize));
+        }
+        this.source = source;
+        this.minimumSize = minimumSize;
+        this.maximumSize = maximumSize;
+    }
+
+    /**
+     * Assigns the time after which an idle connection will be closed.
+     *
+     * @param idleTimeout the idle timeout.
+     * @return this data source.
+     */
+    public PooledDataSource setIdleTimeout(Duration idleTimeout) {
+        this.idleTimeout = idleTimeout;
+        return this;
+    }
+
+    /**
+     * Assigns the maximum time to wait for a connection when the pool is exhausted.
+     *
+     * @param maximumWait the maximum time to wait.
+     * @return this data source.
+     */
+    public PooledDataSource setMaximumWait(Duration maximumWait) {
+        this.maximumWait = maximumWait;
+        return this;
+    }
+
+    /**
+     * Assigns the timeout in seconds for validating a connection on borrow.
+     *
+     * @param seconds the timeout in seconds.
+     * @return this data source.
+     */
+    public PooledDataSource setValidationTimeout(int seconds) {
+        this.validationTimeout = seconds;
+        return this;
+    }
+
+    /**
+     * Assigns the period during which a recently used connection is not validated again.
+     *
+     * @param validationInterval the period to skip the validation,
+     *        {@link Duration#ZERO} validates the connection on every borrow.
+     * @return this data source.
+     */
+    public PooledDataSource setValidationInterval(Duration validationInterval) {
+        this.validationInterval = validationInterval;
+        return this;
+    }
+
+    /**
+     * Assigns the maximum number of prepared statements cached per connection.
+     *
+     * @param size the maximum number of statements, zero disables the cache.
+     * @return this data source.
+     */
+    public PooledDataSource setStatementCacheSize(int size) {
+        this.statementCacheSize = size;
+        return this;
+    }
+
+    public int getMinimumSize() {
+        return minimumSize;
+    }
+
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    /* metrics */
+
+    /**
+     * Returns the number of physical connections currently opened by this pool.
+     *
+     * @return the number of connections, including both idle and borrowed ones.
+     */
+    public synchronized int getTotalConnections() {
+        return totalConnections;
+    }
+
+    public synchronized int getIdleConnections() {
+        return idleConnections.size();
+    }
+
+    public synchronized int getActiveConnections() {
+        return totalConnections - idleConnections.size();
+    }
+
+    public long getCreatedCount() {
+        return createdCount.get();
+    }
+
+    public long getDestroyedCount() {
+        return destroyedCount.get();
+    }
+
+    public long getBorrowedCount() {
+        return borrowedCount.get();
+    }
+
+    /**
+     * Returns how many times the borrowers waited for a connection to be returned.
+     *
+     * @return the number of waits.
+     */
+    public long getWaitedCount() {
+        return waitedCount.get();
+    }
+
+    /**
+     * Returns how many idle connections failed the validation on borrow.
+     *
+     * @return the number of invalidated connections.
+     */
+    public long getInvalidatedCount() {
+        return invalidatedCount.get();
+    }
+
+    /**
+     * Returns how many times the prepared statement was found in the cache.
+     *
+     * @return the number of cache hits.
+     */
+    public long getStatementCacheHits() {
+        return statementCacheHits.get();
+    }
+
+    /**
+     * Returns how many times the prepared statement was not found in the cache.
+     *
+     * @return the number of cache misses.
+     */
+    public long getStatementCacheMisses() {
+        return statementCacheMisses.get();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        evictIdle();
+        fill();
+        for (;;) {
+            PooledConnection pooled = acquire();
+            if (pooled == null) {
+                pooled = create();
+            } else if (!validate(pooled)) {
+                invalidatedCount.incrementAndGet();
+                destroy(pooled);
+                continue;
+            }
+            borrowedCount.incrementAndGet();
+            return pooled.borrow();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    /**
+     * Closes all idle connections and refuses further requests.
+     * The connections currently borrowed will be closed when they are returned.
+     */
+    @Override
+    public void close() {
+        List<PooledConnection> toClose;
+        synchronized (this) {
+            closed = true;
+            toClose = new ArrayList<>(idleConnections);
+            idleConnections.clear();
+            notifyAll();
+        }
+        toClose.forEach(this::destroy);
+    }
+
+    /**
+     * Opens connections until the pool has the minimum number of connections.
+     */
+    private void fill() throws SQLException {
+        while (reserveForFill()) {
+            PooledConnection pooled = create();
+            synchronized (this) {
+                idleConnections.addLast(pooled);
+                notifyAll();
+            }
+        }
+    }
+
+    private synchronized boolean reserveForFill() {
+        if (closed || totalConnections >= minimumSize) {
+            return false;
+        }
+        totalConnections++;
+        return true;
+    }
+
+    /**
+     * Takes an idle connection, or reserves a slot for a new connection.
+     *
+     * @return the idle connection, or {@code null} if a new connection should be created.
+     * @throws SQLException if this pool is closed or no connection is available in time.
+     */
+    private synchronized PooledConnection acquire() throws SQLException {
+        long deadline = System.nanoTime() + maximumWait.toNanos();
+        boolean waited = false;
+        for (;;) {
+            if (closed) {
+                throw new SQLException(CONNECTION_POOL_IS_CLOSED.toString());
+            }
+            PooledConnection pooled = idleConnections.pollFirst();
+            if (pooled != null) {
+                return pooled;
+            }
+            if (totalConnections < maximumSize) {
+                totalConnections++;
+                return null;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                throw new SQLException(CONNECTION_POOL_IS_EXHAUSTED.with(maximumSize));
+            }
+            if (!waited) {
+                waitedCount.incrementAndGet();
+                waited = true;
+            }
+            try {
+                long millis = Math.max(1, remaining / 1000000);
+                wait(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException(e);
+            }
+        }
+    }
+
+    /**
+     * Creates a new physical connection for the slot reserved by {@link #acquire()}.
+     */
+    private PooledConnection create() throws SQLException {
+        try {
+            Connection connection = source.getConnection();
+            createdCount.incrementAndGet();
+            return new PooledConnection(connection);
+        } catch (SQLException | RuntimeException e) {
+            synchronized (this) {
+                totalConnections--;
+                notifyAll();
+            }
+            throw e;
+        }
+    }
+
+    private boolean validate(PooledConnection pooled) {
+        if (System.nanoTime() - pooled.getLastUsed() < validationInterval.toNanos()) {
+            return true;
+        }
+        try {
+            return pooled.getConnection().isValid(validationTimeout);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns the connection to this pool.
+     *
+     * @param pooled the connection to return.
+     */
+    private void release(PooledConnection pooled) {
+        if (!reset(pooled)) {
+            destroy(pooled);
+            return;
+        }
+        List<PooledConnection> expired;
+        synchronized (this) {
+            if (closed) {
+                expired = new ArrayList<>();
+                expired.add(pooled);
+            } else {
+                pooled.touch();
+                idleConnections.addFirst(pooled);
+                expired = evictExpired();
+                notifyAll();
+            }
+        }
+        expired.forEach(this::destroy);
+    }
+
+    /**
+     * Closes the connections idle for too long while keeping the minimum size.
+     */
+    private void evictIdle() {
+        List<PooledConnection> expired;
+        synchronized (this) {
+            expired = evictExpired();
+        }
+        expired.forEach(this::destroy);
+    }
+
+    /**
+     * Removes the connections idle for too long while keeping the minimum size.
+     *
+     * @return the removed connections to be closed.
+     */
+    private List<PooledConnection> evictExpired() {
+        List<PooledConnection> expired = new ArrayList<>();
+        long threshold = System.nanoTime() - idleTimeout.toNanos();
+        // The least recently used connections are at the tail.
+        Iterator<PooledConnection> it = idleConnections.descendingIterator();
+        while (it.hasNext() && totalConnections - expired.size() > minimumSize) {
+            PooledConnection pooled = it.next();
+            if (pooled.getLastUsed() - threshold > 0) {
+                break;
+            }
+            it.remove();
+            expired.add(pooled);
+        }
+        return expired;
+    }
+
+    /**
+     * Resets the state of the connection modified by the borrower.
+     *
+     * @param pooled the returned connection.
+     * @return {@code true} if the connection can be reused.
+     */
+    private boolean reset(PooledConnection pooled) {
+        Connection connection = pooled.getConnection();
+        try {
+            if (connection.isClosed()) {
+                return false;
+            }
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+            connection.clearWarnings();
+            return true;
+        } catch (SQLException e) {
+            log.log(Level.FINE, REPOSITORY_ACCESS_ERROR_WAS_IGNORED.toString(), e);
+            return false;
+        }
+    }
+
+    /**
+     * Closes the physical connection.
+     *
+     * @param pooled the connection to close.
+     */
+    private void destroy(PooledConnection pooled) {
+        synchronized (this) {
+            totalConnections--;
+            notifyAll();
+        }
+        destroyedCount.incrementAndGet();
+        if (pooled.getStatementCache() != null) {
+            pooled.getStatementCache().clear();
+        }
+        try {
+            pooled.getConnection().close();
+        } catch (SQLException e) {
+            log.log(Level.FINE, REPOSITORY_ACCESS_ERROR_WAS_IGNORED.toString(), e);
+        }
+    }
+
+    /**
+     * A physical connection managed by the pool.
+     */
+    private class PooledConnection {
+
+        private final Connection connection;
+        private final StatementCache statementCache;
+        private long lastUsed;
+
+        PooledConnection(Connection connection) {
+            this.connection = connection;
+            if (statementCacheSize > 0) {
+                this.statementCache = new StatementCache(
+                        statementCacheSize, statementCacheHits, statementCacheMisses);
+            } else {
+                this.statementCache = null;
+            }
+            touch();
+        }
+
+        Connection getConnection() {
+            return connection;
+        }
+
+        StatementCache getStatementCache() {
+            return statementCache;
+        }
+
+        long getLastUsed() {
+            return lastUsed;
+        }
+
+        void touch() {
+            this.lastUsed = System.nanoTime();
+        }
+
+        /**
+         * Creates a handle of this connection given to the borrower.
+         *
+         * @return the handle of this connection.
+         */
+        Connection borrow() {
+            return (Connection)Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[] { Connection.class },
+                    new ConnectionHandle(this));
+        }
+    }
+
+    /**
+     * The handle of the connection which returns the connection to the pool on close.
+     */
+    private class ConnectionHandle implements InvocationHandler {
+
+        private PooledConnection pooled;
+
+        ConnectionHandle(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+            case "close":
+                if (pooled != null) {
+                    PooledConnection returned = pooled;
+                    pooled = null;
+                    release(returned);
+                }
+                return null;
+            case "isClosed":
+                return pooled == null;
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "isWrapperFor":
+                if (args[0] == StatementCache.class && pooled != null) {
+                    return pooled.getStatementCache() != null;
+                }
+                break;
+            case "unwrap":
+                if (args[0] == StatementCache.class && pooled != null && pooled.getStatementCache() != null) {
+                    return pooled.getStatementCache();
+                }
+                break;
+            case "toString":
+                return "Pooled" + ((pooled != null) ? pooled.getConnection().toString() : "[closed]");
+            default:
+                break;
+            }
+            if (pooled == null) {
+                throw new SQLException(CONNECTION_IS_CLOSED.toString());
+            }
+            try {
+                return method.invoke(pooled.getConnection(), args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.unite.core.storage.util;
+
+import static io.github.i49.unite.core.message.Message.REPOSITORY_ACCESS_ERROR_WAS_IGNORED;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A LRU cache of prepared statements bound to a physical connection.
+ *
+ * <p>
+ * A statement is checked out of the cache while it is in use,
+ * and checked in again when the user has finished with it,
+ * so that a statement is never shared by two users at the same time.
+ * The cache of a pooled connection can be obtained by
+ * {@link Connection#unwrap(Class)} with this class.
+ * </p>
+ *
+ * @author i49
+ */
+public class StatementCache {
+
+    private static final Logger log = Logger.getLogger(StatementCache.class.getName());
+
+    private final int capacity;
+    private final Map<Object, PreparedStatement> statements;
+    private final AtomicLong hits;
+    private final AtomicLong misses;
+
+    /**
+     * Constructs this cache.
+     *
+     * @param capacity the maximum number of statements to keep.
+     * @param hits the counter of cache hits.
+     * @param misses the counter of cache misses.
+     */
+    StatementCache(int capacity, AtomicLong hits, AtomicLong misses) {
+        this.capacity = capacity;
+        this.statements = new LinkedHashMap<>(capacity, 0.75f, true);
+        this.hits = hits;
+        this.misses = misses;
+    }
+
+    /**
+     * Returns the cache of the given connection, if it has any.
+     *
+     * @param connection the connection.
+     * @return the cache of the connection, or {@code null} if the connection has no cache.
+     * @throws SQLException if a data access error has occurred.
+     */
+    public static StatementCache of(Connection connection) throws SQLException {
+        if (connection.isWrapperFor(StatementCache.class)) {
+            return connection.unwrap(StatementCache.class);
+        }
+        return null;
+    }
+
+    /**
+     * Takes the statement out of this cache.
+     *
+     * @param key the key of the statement.
+     * @return the cached statement, or {@code null} if this cache does not have it.
+     */
+    public synchronized PreparedStatement checkOut(Object key) {
+        PreparedStatement statement = statements.remove(key);
+        if (statement != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+        }
+        return statement;
+    }
+
+    /**
+     * Puts the statement back into this cache.
+     * The least recently used statement is closed if this cache is full.
+     *
+     * @param key the key of the statement.
+     * @param statement the statement to put back.
+     */
+    public void checkIn(Object key, PreparedStatement statement) {
+        List<PreparedStatement> evicted = new ArrayList<>();
+        synchronized (this) {
+            PreparedStatement existing = statements.put(key, statement);
+            if (existing != null && existing != statement) {
+                evicted.add(existing);
+            }
+            if (statements.size() > capacity) {
+                Object eldest = statements.keySet().iterator().next();
+                evicted.add(statements.remove(eldest));
+            }
+        }
+        evicted.forEach(StatementCache::closeQuietly);
+    }
+
+    /**
+     * Closes all statements in this cache.
+     */
+    public void clear() {
+        List<PreparedStatement> evicted;
+        synchronized (this) {
+            evicted = new ArrayList<>(statements.values());
+            statements.clear();
+        }
+        evicted.forEach(StatementCache::closeQuietly);
+    }
+
+    public synchronized int size() {
+        return statements.size();
+    }
+
+    private static void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            log.log(Level.FINE, REPOSITORY_ACCESS_ERROR_WAS_IGNORED.toString(), e);
+        }
+    }
+}
@@ -18,8 +18,11 @@ package io.github.i49.unite.core.storage.util;
 
 import javax.sql.DataSource;
 
+import io.github.i49.unite.core.storage.InProcessReadyJobChannel;
+import io.github.i49.unite.core.storage.ReadyJobChannel;
 import io.github.i49.unite.core.storage.WorkflowStorage;
 import io.github.i49.unite.core.storage.jdbc.JdbcWorkflowStorage;
+import io.github.i49.unite.core.storage.memory.InMemoryWorkflowStorage;
 
 /**
  * @author i49
@@ -31,6 +34,11 @@ public class WorkflowStorageBuilder {
     private String url;
     private String username;
     private String password;
+    private int minimumPoolSize = PooledDataSource.DEFAULT_MINIMUM_SIZE;
+    private int maximumPoolSize = PooledDataSource.DEFAULT_MAXIMUM_SIZE;
+    private boolean inMemory;
+    private ReadyJobChannel channel;
+    private boolean parameterIndex;
     
     public WorkflowStorageBuilder withUrl(String url) {
         this.url = url;
@@ -48,11 +56,73 @@ public class WorkflowStorageBuilder {
         return this;
     }
     
+    /**
+     * Specifies the size of the connection pool used when no data source is given.
+     * 
+     * @param minimum the number of connections to be kept even if they are idle.
+     * @param maximum the maximum number of connections.
+     * @return this builder.
+     */
+    public WorkflowStorageBuilder withPoolSize(int minimum, int maximum) {
+        this.minimumPoolSize = minimum;
+        this.maximumPoolSize = maximum;
+        return this;
+    }
+    
+    /**
+     * Specifies that the storage should keep everything in memory instead of a database.
+     * The data source, the URL and the credential are ignored if this is specified.
+     * 
+     * @return this builder.
+     */
+    public WorkflowStorageBuilder withInMemoryStorage() {
+        this.inMemory = true;
+        return this;
+    }
+    
+    /**
+     * Specifies the channel to which the storage publishes the events that jobs have become READY.
+     * By default the events are delivered only within the current process,
+     * to the storages sharing the same data source.
+     * 
+     * @param channel the channel of the events.
+     * @return this builder.
+     */
+    public WorkflowStorageBuilder withReadyJobChannel(ReadyJobChannel channel) {
+        this.channel = channel;
+        return this;
+    }
+    
+    /**
+     * Specifies that the storage should also store the output parameters of the jobs entry by entry,
+     * so that the links can read only the entries their mappers need, 
+     * and the jobs can be found by their outputs.
+     * The storages and runners sharing the database should all be built with this.
+     * 
+     * @return this builder.
+     */
+    public WorkflowStorageBuilder withParameterIndex() {
+        this.parameterIndex = true;
+        return this;
+    }
+    
     public WorkflowStorage build() {
+        if (inMemory) {
+            return new InMemoryWorkflowStorage(channel != null ? channel : new InProcessReadyJobChannel())
+                    .setParameterIndexEnabled(parameterIndex);
+        }
         DataSource dataSource = this.dataSource;
+        boolean ownsDataSource = false;
         if (dataSource == null) {
-            dataSource = new DirectDataSource(url, username, password);
+            // The pool created here is closed along with the storage.
+            dataSource = new PooledDataSource(
+                    new DirectDataSource(url, username, password),
+                    minimumPoolSize,
+                    maximumPoolSize);
+            ownsDataSource = true;
         }
-        return new JdbcWorkflowStorage(dataSource);
+        return new JdbcWorkflowStorage(dataSource, 
+                channel != null ? channel : InProcessReadyJobChannel.of(dataSource),
+                ownsDataSource).setParameterIndexEnabled(parameterIndex);
     }
 }
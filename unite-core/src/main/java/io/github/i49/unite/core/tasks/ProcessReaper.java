@@ -0,0 +1,233 @@
+/* 
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.i49.unite.core.tasks;
+
+import static io.github.i49.unite.core.message.Message.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import io.github.i49.unite.api.base.WorkflowException;
+
+/**
+ * Drains the output of the launched processes and completes their futures when they exit.
+ * 
+ * <p>
+ * A single daemon thread watches all processes, 
+ * so that waiting for many processes does not need a thread per process.
+ * The thread periodically copies whatever each process has written to its sink 
+ * through a bounded buffer, so that no process stalls on a full pipe,
+ * and terminates itself while no process is watched.
+ * If a process cannot be watched, for example because its sink fails, 
+ * the process is destroyed and its future is completed exceptionally.
+ * </p>
+ */
+final class ProcessReaper {
+
+    private static final Logger log = Logger.getLogger(ProcessReaper.class.getName());
+
+    private static final long POLLING_INTERVAL_MILLIS = 10;
+    private static final int BUFFER_SIZE = 8192;
+    // the maximum number of buffers copied from a running process at a time
+    private static final int MAXIMUM_READS = 16;
+    
+    private static final ProcessReaper instance = new ProcessReaper();
+    
+    // guarded by this
+    private final List<Watched> processes = new ArrayList<>();
+    private Thread thread;
+    
+    static ProcessReaper getInstance() {
+        return instance;
+    }
+    
+    private ProcessReaper() {
+    }
+    
+    /**
+     * Starts watching the given process.
+     * 
+     * @param process the process to watch.
+     * @param sink the stream to which the output of the process is copied, 
+     *             or {@code null} if the output should be discarded.
+     * @return the future to be completed when the process exits.
+     */
+    synchronized CompletableFuture<ProcessResult> watch(Process process, OutputStream sink) {
+        Watched watched = new Watched(process, sink);
+        processes.add(watched);
+        if (thread == null) {
+            thread = new Thread(this::reap, "unite-process-reaper");
+            thread.setDaemon(true);
+            thread.start();
+        }
+        return watched.future;
+    }
+    
+    private void reap() {
+        try {
+            reapUntilIdle();
+        } finally {
+            for (Watched abandoned: release()) {
+                abandoned.fail(new WorkflowException(PROCESS_CANNOT_BE_WATCHED.toString()));
+            }
+        }
+    }
+    
+    private void reapUntilIdle() {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        List<Watched> exited = new ArrayList<>();
+        List<Watched> failed = new ArrayList<>();
+        for (;;) {
+            List<Watched> alive;
+            synchronized (this) {
+                if (processes.isEmpty()) {
+                    thread = null;
+                    return;
+                }
+                alive = new ArrayList<>(processes);
+            }
+            for (Watched watched: alive) {
+                try {
+                    // The process must be checked before draining, so that its last output is not missed.
+                    boolean exiting = !watched.process.isAlive();
+                    watched.drain(buffer, exiting ? Integer.MAX_VALUE : MAXIMUM_READS);
+                    if (exiting) {
+                        exited.add(watched);
+                    }
+                } catch (RuntimeException e) {
+                    watched.failure = e;
+                    failed.add(watched);
+                }
+            }
+            if (!exited.isEmpty() || !failed.isEmpty()) {
+                synchronized (this) {
+                    processes.removeAll(exited);
+                    processes.removeAll(failed);
+                }
+                // Completes the futures outside of the lock, because they run the dependent stages.
+                for (Watched watched: exited) {
+                    watched.complete();
+                }
+                for (Watched watched: failed) {
+                    watched.fail(watched.failure);
+                }
+                exited.clear();
+                failed.clear();
+            }
+            try {
+                Thread.sleep(POLLING_INTERVAL_MILLIS);
+            } catch (InterruptedException e) {
+                // Nobody should interrupt this thread, keeps watching.
+            }
+        }
+    }
+    
+    /**
+     * Releases the current thread from watching the processes.
+     * 
+     * @return the processes left unwatched, 
+     *         which are non-empty only if the thread is exiting abnormally.
+     */
+    private synchronized List<Watched> release() {
+        if (thread != Thread.currentThread()) {
+            return Collections.emptyList();
+        }
+        thread = null;
+        List<Watched> abandoned = new ArrayList<>(processes);
+        processes.clear();
+        return abandoned;
+    }
+    
+    /**
+     * A process being watched.
+     */
+    private static class Watched {
+        
+        private final Process process;
+        private final InputStream output;
+        private final OutputStream sink;
+        private final CompletableFuture<ProcessResult> future = new CompletableFuture<>();
+        private boolean broken;
+        private RuntimeException failure;
+        
+        Watched(Process process, OutputStream sink) {
+            this.process = process;
+            this.output = process.getInputStream();
+            this.sink = sink;
+        }
+        
+        /**
+         * Copies the output available without blocking to the sink.
+         * 
+         * @param buffer the buffer used for copying.
+         * @param maximumReads the maximum number of reads, 
+         *                     which prevents a chatty process from starving the others.
+         */
+        void drain(byte[] buffer, int maximumReads) {
+            if (broken) {
+                return;
+            }
+            try {
+                int available;
+                for (int reads = 0; reads < maximumReads && (available = output.available()) > 0; reads++) {
+                    int read = output.read(buffer, 0, Math.min(available, buffer.length));
+                    if (read < 0) {
+                        break;
+                    }
+                    if (sink != null) {
+                        sink.write(buffer, 0, read);
+                    }
+                }
+                if (sink != null) {
+                    sink.flush();
+                }
+            } catch (IOException e) {
+                log.log(Level.WARNING, e.getMessage(), e);
+                broken = true;
+            }
+        }
+        
+        /**
+         * Completes the future with the exit value of the exited process.
+         */
+        void complete() {
+            try {
+                future.complete(new ProcessResult(process.exitValue()));
+            } catch (RuntimeException e) {
+                fail(e);
+            }
+        }
+        
+        /**
+         * Destroys the process which cannot be watched any longer and completes the future exceptionally.
+         * 
+         * @param cause the reason why the process cannot be watched.
+         */
+        void fail(Throwable cause) {
+            log.log(Level.WARNING, PROCESS_CANNOT_BE_WATCHED.toString(), cause);
+            process.destroy();
+            future.completeExceptionally(cause);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+/* 
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.i49.unite.core.tasks;
+
+/**
+ * The result of a process launched by {@link ShellLauncher}.
+ */
+final class ProcessResult {
+
+    private final int exitValue;
+    
+    ProcessResult(int exitValue) {
+        this.exitValue = exitValue;
+    }
+    
+    /**
+     * Returns the exit value of the process.
+     * 
+     * @return the exit value, zero by convention if the process succeeded.
+     */
+    int getExitValue() {
+        return exitValue;
+    }
+    
+    @Override
+    public String toString() {
+        return "exit value: " + exitValue;
+    }
+}
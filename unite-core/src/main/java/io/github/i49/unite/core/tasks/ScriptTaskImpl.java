@@ -18,12 +18,14 @@
 package io.github.i49.unite.core.tasks;
 
 import static io.github.i49.unite.core.common.Preconditions.checkNotNull;
+import static io.github.i49.unite.core.message.Message.SCRIPT_EXITED_ABNORMALLY;
 
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
+import io.github.i49.unite.api.base.WorkflowException;
 import io.github.i49.unite.api.tasks.ScriptTask;
 import io.github.i49.unite.api.tasks.ScriptTaskBuilder;
 import io.github.i49.unite.api.tasks.TaskContext;
@@ -43,8 +45,12 @@ public class ScriptTaskImpl implements ScriptTask {
     public void run(TaskContext context) {
         ShellLauncher launcher = ShellLauncher.launcherFor(context.getPlatform());
         launcher.setDirectory(context.getJobDirectory());
+        launcher.setOutput(context.getStandardStream());
         Path scriptPath = getScriptPath().toAbsolutePath();
-        launcher.launchScript(scriptPath.toString(), this.arguments);
+        ProcessResult result = launcher.launchScript(scriptPath.toString(), this.arguments);
+        if (result.getExitValue() != 0) {
+            throw new WorkflowException(SCRIPT_EXITED_ABNORMALLY.with(scriptPath, result.getExitValue()));
+        }
     }
 
     @Override
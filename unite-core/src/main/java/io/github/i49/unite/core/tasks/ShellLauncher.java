@@ -17,10 +17,16 @@
  */
 package io.github.i49.unite.core.tasks;
 
+import static io.github.i49.unite.core.message.Message.*;
+
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
 import io.github.i49.unite.api.base.Platform;
 import io.github.i49.unite.api.base.WorkflowException;
@@ -44,6 +50,7 @@ abstract class ShellLauncher {
     }
     
     private Path directory;
+    private OutputStream output;
     
     /**
      * Assigns the current working directory.
@@ -56,20 +63,81 @@ abstract class ShellLauncher {
         return this;
     }
     
-    void launchScript(String scriptPath, List<String> arguments) {
+    /**
+     * Assigns the stream to which the standard output and the standard error 
+     * of the launched processes are copied.
+     * 
+     * @param output the stream receiving the output, 
+     *               or {@code null} if the output should be discarded.
+     * @return this launcher.
+     */
+    ShellLauncher setOutput(OutputStream output) {
+        this.output = output;
+        return this;
+    }
+    
+    /**
+     * Launches the script and waits for it to exit.
+     * The process is destroyed if the current thread is interrupted while waiting.
+     * 
+     * @param scriptPath the path to the script.
+     * @param arguments the arguments passed to the script.
+     * @return the result of the process.
+     * @throws WorkflowException if the process cannot be started or the wait is interrupted.
+     */
+    ProcessResult launchScript(String scriptPath, List<String> arguments) {
+        CompletableFuture<ProcessResult> future = launchScriptAsync(scriptPath, arguments);
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new WorkflowException(PROCESS_WAS_INTERRUPTED.with(scriptPath), e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof WorkflowException) {
+                throw (WorkflowException)cause;
+            }
+            throw new WorkflowException(PROCESS_CANNOT_BE_STARTED.with(scriptPath), cause);
+        }
+    }
+    
+    /**
+     * Launches the script without waiting for it to exit.
+     * 
+     * <p>
+     * The returned future is completed by {@link ProcessReaper} when the process exits,
+     * so no thread is blocked per process.
+     * The standard error of the process is merged into its standard output,
+     * which the reaper keeps draining into the assigned output stream.
+     * Cancelling the future destroys the process.
+     * </p>
+     * 
+     * @param scriptPath the path to the script.
+     * @param arguments the arguments passed to the script.
+     * @return the future of the result of the process, 
+     *         completed exceptionally with {@link WorkflowException} if the process cannot be started.
+     */
+    CompletableFuture<ProcessResult> launchScriptAsync(String scriptPath, List<String> arguments) {
         List<String> commands = buildCommands(scriptPath, arguments);
         ProcessBuilder builder = new ProcessBuilder(commands);
         builder.directory(this.directory.toFile());
+        builder.redirectErrorStream(true);
+        Process process;
         try {
-            Process process = builder.start();
-            process.waitFor();
+            process = builder.start();
         } catch (IOException e) {
-            // TODO
-            throw new WorkflowException("", e);
-        } catch (InterruptedException e) {
-            // TODO
-            throw new WorkflowException("", e);
+            CompletableFuture<ProcessResult> failed = new CompletableFuture<>();
+            failed.completeExceptionally(new WorkflowException(PROCESS_CANNOT_BE_STARTED.with(scriptPath), e));
+            return failed;
         }
+        CompletableFuture<ProcessResult> future = ProcessReaper.getInstance().watch(process, this.output);
+        future.whenComplete((result, thrown)->{
+            if (thrown instanceof CancellationException) {
+                process.destroy();
+            }
+        });
+        return future;
     }
     
     protected abstract List<String> buildCommands(String scriptPath, List<String> arguments);
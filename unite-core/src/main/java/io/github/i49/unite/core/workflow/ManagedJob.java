@@ -17,10 +17,10 @@
  */
 package io.github.i49.unite.core.workflow;
 
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.OptionalLong;
+import java.util.function.Supplier;
 
 import io.github.i49.unite.api.base.ParameterSet;
 import io.github.i49.unite.api.tasks.Task;
@@ -33,13 +33,16 @@ import io.github.i49.unite.api.workflow.JobStatus;
 public class ManagedJob extends WorkflowComponent implements Job {
     
     private final String name;
-    private final ParameterSet inputParameters;
+    private ParameterSet inputParameters;
+    private Supplier<ParameterSet> inputParametersLoader;
 
     private OptionalLong workflowId;
     private JobStatus status;
     private List<Task> tasks;
     private ParameterSet outputParameters;
+    private Supplier<ParameterSet> outputParametersLoader;
     private List<String> standardOutput;
+    private Supplier<List<String>> standardOutputLoader;
     
     ManagedJob(ManagedJobBuilder builder) {
         super(builder.jobId);
@@ -60,11 +63,17 @@ public class ManagedJob extends WorkflowComponent implements Job {
    
     @Override
     public ParameterSet getInputParameters() {
+        if (inputParameters == null) {
+            inputParameters = inputParametersLoader.get();
+        }
         return inputParameters;
     }
     
     @Override
     public ParameterSet getOutputParameters() {
+        if (outputParameters == null) {
+            outputParameters = outputParametersLoader.get();
+        }
         return outputParameters;
     }
     
@@ -75,6 +84,9 @@ public class ManagedJob extends WorkflowComponent implements Job {
     
     @Override
     public List<String> getStandardOutput() {
+        if (standardOutput == null) {
+            standardOutput = standardOutputLoader.get();
+        }
         return standardOutput;   
     }
 
@@ -92,12 +104,46 @@ public class ManagedJob extends WorkflowComponent implements Job {
         return workflowId.getAsLong();
     }
 
+    public void setInputParameters(ParameterSet parameters) {
+        this.inputParameters = parameters;
+    }
+    
+    /**
+     * Assigns the loader of the input, which is invoked on the first request of the input.
+     * 
+     * @param loader the loader of the input.
+     */
+    public void setInputParametersLoader(Supplier<ParameterSet> loader) {
+        this.inputParameters = null;
+        this.inputParametersLoader = loader;
+    }
+    
     public void setOutputParamters(ParameterSet parameters) {
         this.outputParameters = parameters;
     }
     
-    public void setStandardOutput(String[] lines) {
-        standardOutput = Arrays.asList(lines);
+    /**
+     * Assigns the loader of the output, which is invoked on the first request of the output.
+     * 
+     * @param loader the loader of the output.
+     */
+    public void setOutputParametersLoader(Supplier<ParameterSet> loader) {
+        this.outputParameters = null;
+        this.outputParametersLoader = loader;
+    }
+    
+    public void setStandardOutput(List<String> lines) {
+        standardOutput = Collections.unmodifiableList(lines);
+    }
+    
+    /**
+     * Assigns the loader of the standard output, which is invoked on the first request of the output.
+     * 
+     * @param loader the loader of the standard output.
+     */
+    public void setStandardOutputLoader(Supplier<List<String>> loader) {
+        standardOutput = null;
+        standardOutputLoader = loader;
     }
     
     public void setStatus(JobStatus status) {
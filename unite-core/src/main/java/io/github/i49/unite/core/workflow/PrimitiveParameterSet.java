@@ -0,0 +1,644 @@
+/* 
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.i49.unite.core.workflow;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+import io.github.i49.unite.api.base.ParameterSet;
+
+/**
+ * An implementation of {@link ParameterSet} which stores 
+ * the values of {@code int}, {@code long}, {@code double} and {@code boolean} without boxing them.
+ * 
+ * <p>
+ * The entries are kept in parallel arrays of keys, types, primitive values and other values,
+ * which are indexed by an open addressing hash table of the keys.
+ * {@link Integer}, {@link Long}, {@link Double} and {@link Boolean} given to {@link #put(String, Object)} 
+ * are unboxed when they are stored, and boxed again when they are read through the methods of {@link Map}.
+ * The typed accessors such as {@link #getDouble(String)} and {@link #putDouble(String, double)} never box the values.
+ * Arrays such as {@code double[]} are kept as they are given, without copying.
+ * </p>
+ * <p>
+ * The entries are iterated in the order of their indexes, 
+ * which is the insertion order until any entry is removed.
+ * Removing an entry moves the last entry to the index of the removed one.
+ * This class is not thread-safe.
+ * </p>
+ */
+public class PrimitiveParameterSet extends AbstractMap<String, Object> implements ParameterSet, Serializable {
+
+    private static final long serialVersionUID = 1L;
+    
+    private static final int DEFAULT_CAPACITY = 8;
+    
+    /**
+     * Type of the values stored in this set.
+     */
+    public enum Type {
+        INT,
+        LONG,
+        DOUBLE,
+        BOOLEAN,
+        /** Any other values including {@code null}. */
+        OBJECT
+    }
+    
+    private static final Type[] TYPES = Type.values();
+    
+    private transient String[] keys;
+    private transient byte[] types;
+    private transient long[] primitives;
+    private transient Object[] objects;
+    private transient int size;
+    // Indexes of the entries plus one, 0 for the empty buckets. 
+    private transient int[] table;
+    private transient int modCount;
+    private transient Set<Map.Entry<String, Object>> entrySet;
+    
+    /**
+     * Constructs an empty set.
+     */
+    public PrimitiveParameterSet() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs an empty set with the initial capacity.
+     * 
+     * @param capacity the number of the entries which this set can hold without growing.
+     */
+    public PrimitiveParameterSet(int capacity) {
+        allocate(Math.max(capacity, 1));
+    }
+
+    /**
+     * Constructs a set with the same entries as the specified map.
+     * 
+     * @param parameters the map whose entries are copied.
+     */
+    public PrimitiveParameterSet(Map<String, ?> parameters) {
+        this(parameters.size());
+        putAll(parameters);
+    }
+    
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return (key == null || key instanceof String) && find((String)key) >= 0;
+    }
+
+    @Override
+    public Object get(Object key) {
+        if (key != null && !(key instanceof String)) {
+            return null;
+        }
+        int index = find((String)key);
+        return (index >= 0) ? getValueAt(index) : null;
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        int index = find(key);
+        Object previous = null;
+        if (index >= 0) {
+            previous = getValueAt(index);
+        } else {
+            index = add(key);
+        }
+        setValueAt(index, value);
+        return previous;
+    }
+
+    @Override
+    public Object remove(Object key) {
+        if (key != null && !(key instanceof String)) {
+            return null;
+        }
+        int index = find((String)key);
+        if (index < 0) {
+            return null;
+        }
+        Object previous = getValueAt(index);
+        removeAt(index);
+        return previous;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(keys, 0, size, null);
+        Arrays.fill(objects, 0, size, null);
+        Arrays.fill(table, 0);
+        size = 0;
+        modCount++;
+    }
+
+    @Override
+    public Set<Map.Entry<String, Object>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new EntrySet();
+        }
+        return entrySet;
+    }
+    
+    @Override
+    public int getInt(String key) {
+        int index = findExisting(key);
+        if (types[index] == Type.INT.ordinal()) {
+            return (int)primitives[index];
+        }
+        return (Integer)getValueAt(index);
+    }
+
+    @Override
+    public long getLong(String key) {
+        int index = findExisting(key);
+        if (types[index] == Type.LONG.ordinal() || types[index] == Type.INT.ordinal()) {
+            return primitives[index];
+        }
+        return (Long)getValueAt(index);
+    }
+
+    @Override
+    public double getDouble(String key) {
+        int index = findExisting(key);
+        switch (TYPES[types[index]]) {
+        case DOUBLE:
+            return Double.longBitsToDouble(primitives[index]);
+        case INT:
+        case LONG:
+            return primitives[index];
+        default:
+            return ((Number)getValueAt(index)).doubleValue();
+        }
+    }
+
+    @Override
+    public boolean getBoolean(String key) {
+        int index = findExisting(key);
+        if (types[index] == Type.BOOLEAN.ordinal()) {
+            return primitives[index] != 0;
+        }
+        return (Boolean)getValueAt(index);
+    }
+
+    @Override
+    public void putInt(String key, int value) {
+        setPrimitiveAt(findOrAdd(key), Type.INT, value);
+    }
+
+    @Override
+    public void putLong(String key, long value) {
+        setPrimitiveAt(findOrAdd(key), Type.LONG, value);
+    }
+
+    @Override
+    public void putDouble(String key, double value) {
+        setPrimitiveAt(findOrAdd(key), Type.DOUBLE, Double.doubleToRawLongBits(value));
+    }
+
+    @Override
+    public void putBoolean(String key, boolean value) {
+        setPrimitiveAt(findOrAdd(key), Type.BOOLEAN, value ? 1 : 0);
+    }
+    
+    /**
+     * Returns the key of the entry at the specified index.
+     * The entries are indexed from 0 to {@code size() - 1} in the order of the iteration.
+     * 
+     * @param index the index of the entry.
+     * @return the key of the entry.
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     */
+    public String getKeyAt(int index) {
+        return keys[checkIndex(index)];
+    }
+    
+    /**
+     * Returns the type of the entry at the specified index.
+     * 
+     * @param index the index of the entry.
+     * @return the type of the entry.
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     */
+    public Type getTypeAt(int index) {
+        return TYPES[types[checkIndex(index)]];
+    }
+    
+    /**
+     * Returns the value of the entry at the specified index, which is of {@link Type#INT}.
+     * 
+     * @param index the index of the entry.
+     * @return the value of the entry.
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     */
+    public int getIntAt(int index) {
+        return (int)primitives[checkIndex(index)];
+    }
+
+    /**
+     * Returns the value of the entry at the specified index, which is of {@link Type#LONG}.
+     * 
+     * @param index the index of the entry.
+     * @return the value of the entry.
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     */
+    public long getLongAt(int index) {
+        return primitives[checkIndex(index)];
+    }
+
+    /**
+     * Returns the value of the entry at the specified index, which is of {@link Type#DOUBLE}.
+     * 
+     * @param index the index of the entry.
+     * @return the value of the entry.
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     */
+    public double getDoubleAt(int index) {
+        return Double.longBitsToDouble(primitives[checkIndex(index)]);
+    }
+
+    /**
+     * Returns the value of the entry at the specified index, which is of {@link Type#BOOLEAN}.
+     * 
+     * @param index the index of the entry.
+     * @return the value of the entry.
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     */
+    public boolean getBooleanAt(int index) {
+        return primitives[checkIndex(index)] != 0;
+    }
+
+    /**
+     * Returns the value of the entry at the specified index, which is of {@link Type#OBJECT}.
+     * 
+     * @param index the index of the entry.
+     * @return the value of the entry, can be {@code null}.
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     */
+    public Object getObjectAt(int index) {
+        return objects[checkIndex(index)];
+    }
+    
+    // helper methods
+    
+    private void allocate(int capacity) {
+        keys = new String[capacity];
+        types = new byte[capacity];
+        primitives = new long[capacity];
+        objects = new Object[capacity];
+        // The table is kept at most half full.
+        table = new int[tableSizeFor(capacity)];
+    }
+    
+    private static int tableSizeFor(int capacity) {
+        return Integer.highestOneBit(capacity * 2 - 1) << 1;
+    }
+    
+    private int checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(String.valueOf(index));
+        }
+        return index;
+    }
+
+    private static int hash(String key) {
+        int h = (key == null) ? 0 : key.hashCode();
+        return h ^ (h >>> 16);
+    }
+    
+    /**
+     * Returns the index of the entry of the key, or -1 if not found.
+     */
+    private int find(String key) {
+        int mask = table.length - 1;
+        for (int bucket = hash(key) & mask; ; bucket = (bucket + 1) & mask) {
+            int slot = table[bucket];
+            if (slot == 0) {
+                return -1;
+            } else if (Objects.equals(keys[slot - 1], key)) {
+                return slot - 1;
+            }
+        }
+    }
+    
+    private int findExisting(String key) {
+        int index = find(key);
+        if (index < 0) {
+            throw new NoSuchElementException(key);
+        }
+        return index;
+    }
+    
+    private int findOrAdd(String key) {
+        int index = find(key);
+        return (index >= 0) ? index : add(key);
+    }
+    
+    /**
+     * Returns the bucket of the table which points to the entry at the index.
+     */
+    private int findBucket(int index) {
+        int mask = table.length - 1;
+        int bucket = hash(keys[index]) & mask;
+        while (table[bucket] != index + 1) {
+            bucket = (bucket + 1) & mask;
+        }
+        return bucket;
+    }
+    
+    /**
+     * Adds the entry of the key which is not in this set yet.
+     * 
+     * @return the index of the entry added.
+     */
+    private int add(String key) {
+        if (size == keys.length) {
+            grow();
+        }
+        int index = size++;
+        keys[index] = key;
+        insertBucket(index);
+        modCount++;
+        return index;
+    }
+    
+    private void insertBucket(int index) {
+        int mask = table.length - 1;
+        int bucket = hash(keys[index]) & mask;
+        while (table[bucket] != 0) {
+            bucket = (bucket + 1) & mask;
+        }
+        table[bucket] = index + 1;
+    }
+    
+    private void grow() {
+        int capacity = keys.length * 2;
+        keys = Arrays.copyOf(keys, capacity);
+        types = Arrays.copyOf(types, capacity);
+        primitives = Arrays.copyOf(primitives, capacity);
+        objects = Arrays.copyOf(objects, capacity);
+        table = new int[tableSizeFor(capacity)];
+        for (int index = 0; index < size; index++) {
+            insertBucket(index);
+        }
+    }
+    
+    /**
+     * Removes the entry at the index, moving the last entry to the index.
+     */
+    private void removeAt(int index) {
+        removeBucket(findBucket(index));
+        int last = size - 1;
+        if (index != last) {
+            table[findBucket(last)] = index + 1;
+            keys[index] = keys[last];
+            types[index] = types[last];
+            primitives[index] = primitives[last];
+            objects[index] = objects[last];
+        }
+        keys[last] = null;
+        objects[last] = null;
+        size = last;
+        modCount++;
+    }
+    
+    /**
+     * Empties the bucket, shifting back the following buckets 
+     * so that no entry becomes unreachable from its home bucket.
+     */
+    private void removeBucket(int hole) {
+        int mask = table.length - 1;
+        int bucket = hole;
+        for (;;) {
+            bucket = (bucket + 1) & mask;
+            int slot = table[bucket];
+            if (slot == 0) {
+                break;
+            }
+            int home = hash(keys[slot - 1]) & mask;
+            // The entry can be moved to the hole unless its home is cyclically in (hole, bucket].
+            boolean stays = (hole <= bucket) ? (hole < home && home <= bucket) : (hole < home || home <= bucket);
+            if (!stays) {
+                table[hole] = slot;
+                hole = bucket;
+            }
+        }
+        table[hole] = 0;
+    }
+    
+    private Object getValueAt(int index) {
+        long value = primitives[index];
+        switch (TYPES[types[index]]) {
+        case INT:
+            return (int)value;
+        case LONG:
+            return value;
+        case DOUBLE:
+            return Double.longBitsToDouble(value);
+        case BOOLEAN:
+            return value != 0;
+        default:
+            return objects[index];
+        }
+    }
+    
+    private void setValueAt(int index, Object value) {
+        if (value instanceof Integer) {
+            setPrimitiveAt(index, Type.INT, (Integer)value);
+        } else if (value instanceof Long) {
+            setPrimitiveAt(index, Type.LONG, (Long)value);
+        } else if (value instanceof Double) {
+            setPrimitiveAt(index, Type.DOUBLE, Double.doubleToRawLongBits((Double)value));
+        } else if (value instanceof Boolean) {
+            setPrimitiveAt(index, Type.BOOLEAN, (Boolean)value ? 1 : 0);
+        } else {
+            types[index] = (byte)Type.OBJECT.ordinal();
+            primitives[index] = 0;
+            objects[index] = value;
+        }
+    }
+    
+    private void setPrimitiveAt(int index, Type type, long value) {
+        types[index] = (byte)type.ordinal();
+        primitives[index] = value;
+        objects[index] = null;
+    }
+    
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        out.writeInt(size);
+        for (int index = 0; index < size; index++) {
+            out.writeObject(keys[index]);
+            out.writeByte(types[index]);
+            switch (TYPES[types[index]]) {
+            case OBJECT:
+                out.writeObject(objects[index]);
+                break;
+            default:
+                out.writeLong(primitives[index]);
+                break;
+            }
+        }
+    }
+    
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        int count = in.readInt();
+        allocate(Math.max(count, 1));
+        for (int i = 0; i < count; i++) {
+            int index = add((String)in.readObject());
+            Type type = TYPES[in.readByte()];
+            if (type == Type.OBJECT) {
+                setValueAt(index, in.readObject());
+            } else {
+                setPrimitiveAt(index, type, in.readLong());
+            }
+        }
+    }
+    
+    /**
+     * The view of the entries.
+     */
+    private class EntrySet extends AbstractSet<Map.Entry<String, Object>> {
+        
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void clear() {
+            PrimitiveParameterSet.this.clear();
+        }
+
+        @Override
+        public Iterator<Map.Entry<String, Object>> iterator() {
+            return new EntryIterator();
+        }
+    }
+    
+    /**
+     * The iterator of the entries.
+     * Removing an entry moves the last entry to the current index, which is visited next.
+     */
+    private class EntryIterator implements Iterator<Map.Entry<String, Object>> {
+        
+        private int next;
+        private int current = -1;
+        private int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext() {
+            return next < size;
+        }
+
+        @Override
+        public Map.Entry<String, Object> next() {
+            checkModCount();
+            if (next >= size) {
+                throw new NoSuchElementException();
+            }
+            current = next++;
+            return new Entry(keys[current]);
+        }
+
+        @Override
+        public void remove() {
+            if (current < 0) {
+                throw new IllegalStateException();
+            }
+            checkModCount();
+            removeAt(current);
+            next = current;
+            current = -1;
+            expectedModCount = modCount;
+        }
+        
+        private void checkModCount() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+    
+    /**
+     * The entry of this set, which reads and writes the value through this set.
+     */
+    private class Entry implements Map.Entry<String, Object> {
+        
+        private final String key;
+        
+        Entry(String key) {
+            this.key = key;
+        }
+
+        @Override
+        public String getKey() {
+            return key;
+        }
+
+        @Override
+        public Object getValue() {
+            return get(key);
+        }
+
+        @Override
+        public Object setValue(Object value) {
+            int index = find(key);
+            if (index < 0) {
+                throw new IllegalStateException();
+            }
+            Object previous = getValueAt(index);
+            setValueAt(index, value);
+            return previous;
+        }
+        
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry<?, ?> other = (Map.Entry<?, ?>)obj;
+            return Objects.equals(key, other.getKey()) && Objects.equals(getValue(), other.getValue());
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(key) ^ Objects.hashCode(getValue());
+        }
+        
+        @Override
+        public String toString() {
+            return key + "=" + getValue();
+        }
+    }
+}
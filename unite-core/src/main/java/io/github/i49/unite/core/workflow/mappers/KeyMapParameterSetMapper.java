@@ -17,14 +17,15 @@
  */
 package io.github.i49.unite.core.workflow.mappers;
 
+import java.util.Collections;
 import java.util.Map;
+import java.util.Set;
 
 import io.github.i49.unite.api.base.ParameterSet;
-import io.github.i49.unite.api.workflow.ParameterSetMapper;
 
 /**
  */
-public class KeyMapParameterSetMapper implements ParameterSetMapper {
+public class KeyMapParameterSetMapper implements SelectiveParameterSetMapper {
     
     private final Map<String, String> keyMap;
     
@@ -40,4 +41,9 @@ public class KeyMapParameterSetMapper implements ParameterSetMapper {
             target.put(targetKey, value);
         }
     }
+    
+    @Override
+    public Set<String> getSourceKeys() {
+        return Collections.unmodifiableSet(keyMap.keySet());
+    }
 }
@@ -17,12 +17,14 @@
  */
 package io.github.i49.unite.core.workflow.mappers;
 
+import java.util.Collections;
+import java.util.Set;
+
 import io.github.i49.unite.api.base.ParameterSet;
-import io.github.i49.unite.api.workflow.ParameterSetMapper;
 
 /**
  */
-public class MergingParameterSetMapper implements ParameterSetMapper {
+public class MergingParameterSetMapper implements SelectiveParameterSetMapper {
     
     public static final MergingParameterSetMapper INSTANCE = new MergingParameterSetMapper();
     
@@ -32,4 +34,13 @@ public class MergingParameterSetMapper implements ParameterSetMapper {
     @Override
     public void mapParameterSet(ParameterSet source, ParameterSet target) {
     }
+    
+    @Override
+    public Set<String> getSourceKeys() {
+        return Collections.emptySet();
+    }
+    
+    private Object readResolve() {
+        return INSTANCE;
+    }
 }
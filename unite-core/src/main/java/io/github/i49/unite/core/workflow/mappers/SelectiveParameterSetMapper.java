@@ -0,0 +1,37 @@
+/* 
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.i49.unite.core.workflow.mappers;
+
+import java.util.Set;
+
+import io.github.i49.unite.api.base.ParameterSet;
+import io.github.i49.unite.api.workflow.ParameterSetMapper;
+
+/**
+ * A {@link ParameterSetMapper} which declares the keys it reads from the source parameters.
+ * The storage may give such a mapper only the entries of those keys.
+ */
+public interface SelectiveParameterSetMapper extends ParameterSetMapper {
+
+    /**
+     * Returns the keys of the source parameters which this mapper reads.
+     * The source parameters given to {@link #mapParameterSet(ParameterSet, ParameterSet)}
+     * may contain only the entries of these keys.
+     * 
+     * @return the keys read from the source, never be {@code null}.
+     */
+    Set<String> getSourceKeys();
+}
@@ -26,12 +26,40 @@ CREATE TABLE job (
     job_status VARCHAR(10) NOT NULL,
     job_input BLOB,
     job_output BLOB,
-    standard_output LONGVARCHAR, 
     workflow_id BIGINT NOT NULL,
+    claimed_by VARCHAR(200),
+    claimed_at TIMESTAMP,
+    pending_dependency_count INTEGER DEFAULT 0 NOT NULL,
 
     FOREIGN KEY (workflow_id) REFERENCES workflow (workflow_id)
 );
 
+CREATE TABLE standard_output (
+    job_id BIGINT PRIMARY KEY,
+    content BLOB NOT NULL,
+
+    FOREIGN KEY (job_id) REFERENCES job (job_id)
+);
+
+-- The entries of the parameter sets of the jobs, stored one by one in addition to the whole sets,
+-- so that the mappers can fetch only the entries which they read.
+-- The direction is 'O' for the output.
+-- The values are copied to number_value if they are finite numbers or booleans (1 or 0),
+-- and to text_value if they are short texts, so that the jobs can be queried by their outputs.
+-- The texts are compared case-sensitively, with the binary collation on MySQL.
+CREATE TABLE job_parameter (
+    job_id BIGINT,
+    direction CHAR(1) NOT NULL,
+    parameter_key VARCHAR(200) NOT NULL,
+    parameter_type VARCHAR(10) NOT NULL,
+    parameter_value BLOB,
+    number_value DOUBLE PRECISION,
+    text_value VARCHAR(200),
+
+    PRIMARY KEY (job_id, direction, parameter_key),
+    FOREIGN KEY (job_id) REFERENCES job (job_id)
+);
+
 CREATE TABLE job_link (
     source_job_id BIGINT,
     target_job_id BIGINT,
@@ -53,3 +81,12 @@ CREATE TABLE task (
     PRIMARY KEY (job_id, sequence_number),
     FOREIGN KEY (job_id) REFERENCES job (job_id)
 );
+
+-- The first READY job is found by the index without sorting.
+CREATE INDEX job_status_index ON job (job_status, job_id);
+-- The links are looked up by their targets when the input of a job is mapped.
+-- HSQLDB and MySQL index foreign keys implicitly, but PostgreSQL does not.
+CREATE INDEX job_link_target_index ON job_link (target_job_id);
+-- The jobs are found by the values of their outputs.
+CREATE INDEX job_parameter_number_index ON job_parameter (parameter_key, direction, number_value);
+CREATE INDEX job_parameter_text_index ON job_parameter (parameter_key, direction, text_value);
@@ -0,0 +1,92 @@
+-- 
+-- Copyright 2017 the original author or authors.
+--
+-- Licensed under the Apache License, Version 2.0 (the "License");
+-- you may not use this file except in compliance with the License.
+-- You may obtain a copy of the License at
+-- 
+--     http://www.apache.org/licenses/LICENSE-2.0
+-- 
+-- Unless required by applicable law or agreed to in writing, software
+-- distributed under the License is distributed on an "AS IS" BASIS,
+-- WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+-- See the License for the specific language governing permissions and
+-- limitations under the License.
+--
+
+CREATE TABLE workflow (
+    workflow_id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    workflow_name TEXT NOT NULL,
+    workflow_status VARCHAR(10) NOT NULL
+);
+
+CREATE TABLE job (
+    job_id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    job_name TEXT NOT NULL,
+    job_status VARCHAR(10) NOT NULL,
+    job_input BYTEA,
+    job_output BYTEA,
+    workflow_id BIGINT NOT NULL,
+    claimed_by VARCHAR(200),
+    claimed_at TIMESTAMP,
+    pending_dependency_count INTEGER DEFAULT 0 NOT NULL,
+
+    FOREIGN KEY (workflow_id) REFERENCES workflow (workflow_id)
+);
+
+CREATE TABLE standard_output (
+    job_id BIGINT PRIMARY KEY,
+    content BYTEA NOT NULL,
+
+    FOREIGN KEY (job_id) REFERENCES job (job_id)
+);
+
+-- The entries of the parameter sets of the jobs, stored one by one in addition to the whole sets,
+-- so that the mappers can fetch only the entries which they read.
+-- The direction is 'O' for the output.
+-- The values are copied to number_value if they are finite numbers or booleans (1 or 0),
+-- and to text_value if they are short texts, so that the jobs can be queried by their outputs.
+-- The texts are compared case-sensitively, with the binary collation on MySQL.
+CREATE TABLE job_parameter (
+    job_id BIGINT,
+    direction CHAR(1) NOT NULL,
+    parameter_key VARCHAR(200) NOT NULL,
+    parameter_type VARCHAR(10) NOT NULL,
+    parameter_value BYTEA,
+    number_value DOUBLE PRECISION,
+    text_value VARCHAR(200),
+
+    PRIMARY KEY (job_id, direction, parameter_key),
+    FOREIGN KEY (job_id) REFERENCES job (job_id)
+);
+
+CREATE TABLE job_link (
+    source_job_id BIGINT,
+    target_job_id BIGINT,
+    mapper_class TEXT NOT NULL,
+    mapper_object BYTEA,
+    
+    PRIMARY KEY (source_job_id, target_job_id),
+    FOREIGN KEY (source_job_id) REFERENCES job (job_id),
+    FOREIGN KEY (target_job_id) REFERENCES job (job_id)
+);
+
+CREATE TABLE task (
+    job_id BIGINT,
+    sequence_number INTEGER NOT NULL,
+
+    class_name VARCHAR(1000) NOT NULL,
+    parameters VARCHAR(10000),
+
+    PRIMARY KEY (job_id, sequence_number),
+    FOREIGN KEY (job_id) REFERENCES job (job_id)
+);
+
+-- The first READY job is found by the index without sorting.
+CREATE INDEX job_status_index ON job (job_status, job_id);
+-- The links are looked up by their targets when the input of a job is mapped.
+-- HSQLDB and MySQL index foreign keys implicitly, but PostgreSQL does not.
+CREATE INDEX job_link_target_index ON job_link (target_job_id);
+-- The jobs are found by the values of their outputs.
+CREATE INDEX job_parameter_number_index ON job_parameter (parameter_key, direction, number_value);
+CREATE INDEX job_parameter_text_index ON job_parameter (parameter_key, direction, text_value);
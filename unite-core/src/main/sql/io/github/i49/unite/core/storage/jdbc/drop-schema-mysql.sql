@@ -16,5 +16,7 @@
 
 DROP TABLE IF EXISTS task;
 DROP TABLE IF EXISTS job_link;
+DROP TABLE IF EXISTS standard_output;
+DROP TABLE IF EXISTS job_parameter;
 DROP TABLE IF EXISTS job;
 DROP TABLE IF EXISTS workflow;
@@ -42,6 +42,7 @@ public class RepositoryResource extends ExternalResource {
     
     @Override
     protected void after() {
+        this.repository.close();
         this.repository = null;
     }
     
@@ -25,7 +25,11 @@ import org.junit.ClassRule;
 import org.junit.Test;
 
 import io.github.i49.unite.api.RepositoryResource;
+import io.github.i49.unite.api.base.WorkflowException;
 import io.github.i49.unite.api.repository.WorkflowRepository;
+import io.github.i49.unite.api.tasks.EchoTask;
+import io.github.i49.unite.api.tasks.Task;
+import io.github.i49.unite.api.tasks.TaskFactory;
 import io.github.i49.unite.api.workflow.Job;
 import io.github.i49.unite.api.workflow.JobStatus;
 import io.github.i49.unite.api.workflow.Workflow;
@@ -71,6 +75,39 @@ public class WorkflowRepositoryTest {
         assertThat(job2.hasId());
     }
 
+    @Test
+    public void addWorkflow_shouldAddJobsInMultipleBatches() {
+        WorkflowBuilder builder = workflowFactory.createWorkflowBuilder("workflow1");
+        Job previous = null;
+        for (int i = 0; i < 1200; i++) {
+            Job job = workflowFactory.createJobBuilder("job" + i).build();
+            if (previous != null) {
+                builder.link(previous, job);
+            } else {
+                builder.jobs(job);
+            }
+            previous = job;
+        }
+        repository.addWorkflow(builder.build());
+
+        assertThat(repository.countJobs()).isEqualTo(1200);
+        assertThat(repository.countJobsWithStatus(JobStatus.READY)).isEqualTo(1);
+        assertThat(repository.findJobById(previous.getId()).getName()).isEqualTo("job1199");
+    }
+
+    @Test
+    public void addWorkflow_shouldAddNothingIfFailed() {
+        Job job1 = workflowFactory.createJobBuilder("job1").build();
+        Job job2 = workflowFactory.createJobBuilder("job2").input("bad", new Object()).build();
+        Workflow workflow = workflowFactory.createWorkflowBuilder("workflow1").jobs(job1, job2).build();
+
+        Throwable thrown = catchThrowable(()->repository.addWorkflow(workflow));
+
+        assertThat(thrown).isInstanceOf(WorkflowException.class);
+        assertThat(repository.countWorkflows()).isEqualTo(0);
+        assertThat(repository.countJobs()).isEqualTo(0);
+    }
+
     @Test
     public void findJobsByStatus_shouldReturnReadyJobs() {
         Job job1 = workflowFactory.createJobBuilder("job1").build();
@@ -83,6 +120,39 @@ public class WorkflowRepositoryTest {
         assertThat(jobs).extracting(Job::getName).containsExactly("job1", "job2");
     }
 
+    @Test
+    public void findJobsByStatus_shouldLoadTasksOfAllJobs() {
+        TaskFactory taskFactory = TaskFactory.newInstance();
+        WorkflowBuilder builder = workflowFactory.createWorkflowBuilder("workflow1");
+        for (int i = 0; i < 250; i++) {
+            builder.jobs(workflowFactory.createJobBuilder("job" + i)
+                    .tasks(taskFactory.createEchoTask("first" + i), taskFactory.createEchoTask("second" + i))
+                    .build());
+        }
+        repository.addWorkflow(builder.build());
+
+        List<Job> jobs = repository.findJobsByStatus(JobStatus.READY);
+        assertThat(jobs).hasSize(250);
+        for (int i = 0; i < jobs.size(); i++) {
+            List<Task> tasks = jobs.get(i).getTasks();
+            assertThat(tasks).hasSize(2);
+            assertThat(((EchoTask)tasks.get(0)).getMessage()).isEqualTo("first" + i);
+            assertThat(((EchoTask)tasks.get(1)).getMessage()).isEqualTo("second" + i);
+        }
+    }
+
+    @Test
+    public void findJobById_shouldLoadParametersOnDemand() {
+        Job job1 = workflowFactory.createJobBuilder("job1").input("message", "Hello").build();
+        repository.addWorkflow(workflowFactory.createWorkflowBuilder("workflow1").jobs(job1).build());
+
+        Job found = repository.findJobById(job1.getId());
+        assertThat(found.getName()).isEqualTo("job1");
+        assertThat(found.getInputParameters()).containsEntry("message", "Hello");
+        assertThat(found.getOutputParameters()).isEmpty();
+        assertThat(found.getStandardOutput()).isEmpty();
+    }
+
     @Test
     public void findFirstJobByStatus_shouldReturnFirstReadyJob() {
         Job job1 = workflowFactory.createJobBuilder("job1").build();
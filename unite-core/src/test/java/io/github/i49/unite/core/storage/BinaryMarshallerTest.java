@@ -0,0 +1,172 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.i49.unite.core.storage;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import org.junit.Test;
+
+import io.github.i49.unite.api.base.ParameterSet;
+import io.github.i49.unite.api.base.WorkflowException;
+import io.github.i49.unite.core.workflow.PrimitiveParameterSet;
+import io.github.i49.unite.core.workflow.SimpleParameterSet;
+
+/**
+ * Unit test of {@link BinaryMarshaller}.
+ */
+public class BinaryMarshallerTest {
+
+    private final BinaryMarshaller marshaller = BinaryMarshaller.getInstance();
+
+    @Test
+    public void marshal_shouldRoundTripParameterSet() {
+        SimpleParameterSet parameters = new SimpleParameterSet();
+        parameters.put("boolean", true);
+        parameters.put("int", -42);
+        parameters.put("long", Long.MAX_VALUE);
+        parameters.put("double", 3.14);
+        parameters.put("string", "hello");
+        parameters.put("path", Paths.get("work", "job1"));
+        parameters.put("list", new ArrayList<>(Arrays.asList(1, 2, 3)));
+        parameters.put("map", new HashMap<>(Collections.singletonMap("key", "value")));
+        parameters.put("null", null);
+
+        byte[] content = marshaller.marshal(parameters);
+        assertThat(content[0]).isEqualTo(TaggedBinaryCodec.FORMAT);
+        ParameterSet restored = marshaller.unmarshal(content, ParameterSet.class);
+        assertThat(restored).isInstanceOf(SimpleParameterSet.class);
+        assertThat(restored).isEqualTo(parameters);
+    }
+
+    @Test
+    public void marshal_shouldRoundTripPrimitiveParameterSet() {
+        PrimitiveParameterSet parameters = new PrimitiveParameterSet();
+        parameters.putInt("int", -42);
+        parameters.putLong("long", Long.MAX_VALUE);
+        parameters.putDouble("double", Double.NaN);
+        parameters.putBoolean("boolean", true);
+        parameters.put("doubles", new double[] { 0.5, -2.25 });
+        parameters.put("string", "hello");
+        parameters.put("null", null);
+
+        byte[] content = marshaller.marshal(parameters);
+        assertThat(content[0]).isEqualTo(TaggedBinaryCodec.FORMAT);
+        ParameterSet restored = marshaller.unmarshal(content, ParameterSet.class);
+        assertThat(restored).isInstanceOf(PrimitiveParameterSet.class);
+        assertThat(restored.getInt("int")).isEqualTo(-42);
+        assertThat(restored.getLong("long")).isEqualTo(Long.MAX_VALUE);
+        assertThat(restored.getDouble("double")).isNaN();
+        assertThat(restored.getBoolean("boolean")).isTrue();
+        assertThat(restored.getDoubleArray("doubles")).containsExactly(0.5, -2.25);
+        assertThat(restored).containsEntry("string", "hello").containsEntry("null", null).hasSize(7);
+    }
+
+    @Test
+    public void marshal_shouldRoundTripArrays() {
+        int[] ints = { 1, -1, 300, Integer.MIN_VALUE };
+        double[] doubles = { 0.5, -2.25 };
+        String[] strings = { "a", null, "c" };
+        assertThat(marshaller.unmarshal(marshaller.marshal(ints), int[].class)).containsExactly(ints);
+        assertThat(marshaller.unmarshal(marshaller.marshal(doubles), double[].class)).containsExactly(doubles);
+        assertThat(marshaller.unmarshal(marshaller.marshal(strings), String[].class)).containsExactly(strings);
+    }
+
+    @Test
+    public void marshal_shouldBeSmallerThanSerialization() throws IOException {
+        SimpleParameterSet parameters = new SimpleParameterSet();
+        parameters.put("x", 1.0);
+        parameters.put("y", 2.0);
+        assertThat(marshaller.marshal(parameters).length).isLessThan(serialize(parameters).length / 4);
+    }
+
+    @Test
+    public void marshal_shouldFallBackToSerialization() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("id", UUID.randomUUID());
+
+        byte[] content = marshaller.marshal(map);
+        assertThat(content[0]).isEqualTo(SerializationCodec.FORMAT);
+        assertThat(marshaller.unmarshal(content, Map.class)).isEqualTo(map);
+    }
+
+    @Test
+    public void marshal_shouldKeepSortedMap() {
+        Map<String, Object> map = new TreeMap<>(Collections.reverseOrder());
+        map.put("a", 1);
+        map.put("b", 2);
+
+        byte[] content = marshaller.marshal(map);
+        assertThat(content[0]).isEqualTo(SerializationCodec.FORMAT);
+        Map<?, ?> restored = marshaller.unmarshal(content, Map.class);
+        assertThat(restored).isInstanceOf(TreeMap.class).isEqualTo(map);
+        assertThat(restored.keySet()).containsExactly("b", "a");
+    }
+
+    @Test
+    public void marshal_shouldKeepOtherCollections() {
+        List<Integer> list = Collections.unmodifiableList(new ArrayList<>(Arrays.asList(1, 2)));
+        Map<String, Object> map = Collections.synchronizedMap(new HashMap<>());
+        map.put("a", 1);
+
+        byte[] listContent = marshaller.marshal(list);
+        assertThat(listContent[0]).isEqualTo(SerializationCodec.FORMAT);
+        assertThat(marshaller.unmarshal(listContent, List.class)).hasSameClassAs(list).isEqualTo(list);
+
+        LinkedList<Integer> linkedList = new LinkedList<>(list);
+        assertThat(marshaller.unmarshal(marshaller.marshal(linkedList), List.class))
+            .isInstanceOf(LinkedList.class).isEqualTo(linkedList);
+
+        byte[] mapContent = marshaller.marshal(map);
+        assertThat(mapContent[0]).isEqualTo(SerializationCodec.FORMAT);
+        assertThat(marshaller.unmarshal(mapContent, Map.class)).hasSameClassAs(map).isEqualTo(map);
+    }
+
+    @Test
+    public void unmarshal_shouldRejectEmptyContent() {
+        Throwable thrown = catchThrowable(()->marshaller.unmarshal(new byte[0], Object.class));
+        assertThat(thrown).isInstanceOf(WorkflowException.class);
+    }
+
+    @Test
+    public void unmarshal_shouldAcceptUnversionedSerialization() throws IOException {
+        SimpleParameterSet parameters = new SimpleParameterSet();
+        parameters.put("answer", 42);
+        ParameterSet restored = marshaller.unmarshal(serialize(parameters), ParameterSet.class);
+        assertThat(restored).isEqualTo(parameters);
+    }
+
+    private static byte[] serialize(Object object) throws IOException {
+        ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
+        try (ObjectOutputStream objectStream = new ObjectOutputStream(byteStream)) {
+            objectStream.writeObject(object);
+        }
+        return byteStream.toByteArray();
+    }
+}
@@ -0,0 +1,238 @@
+/* 
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.i49.unite.core.storage.jdbc;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import io.github.i49.unite.api.base.ParameterSet;
+import io.github.i49.unite.api.base.WorkflowException;
+import io.github.i49.unite.api.workflow.Job;
+import io.github.i49.unite.api.workflow.JobStatus;
+import io.github.i49.unite.api.workflow.ParameterSetMapper;
+import io.github.i49.unite.api.workflow.WorkflowFactory;
+import io.github.i49.unite.core.storage.WorkflowStorage;
+import io.github.i49.unite.core.storage.util.DirectDataSource;
+import io.github.i49.unite.core.storage.util.WorkflowStorageBuilder;
+import io.github.i49.unite.core.workflow.JobLink;
+import io.github.i49.unite.core.workflow.ManagedJob;
+import io.github.i49.unite.core.workflow.SimpleParameterSet;
+
+/**
+ * Unit test of {@link JdbcWorkflowStorage}.
+ */
+public class JdbcWorkflowStorageTest {
+
+    private static final String URL = "jdbc:hsqldb:mem:storage";
+
+    private static JdbcWorkflowStorage storage;
+    private WorkflowFactory workflowFactory;
+    
+    @BeforeClass
+    public static void setUpOnce() {
+        storage = new JdbcWorkflowStorage(new DirectDataSource(URL, "sa", null))
+                .setParameterIndexEnabled(true);
+        storage.format();
+    }
+    
+    @Before
+    public void setUp() {
+        storage.clear();
+        workflowFactory = WorkflowFactory.newInstance();
+    }
+    
+    @Test
+    public void close_shouldClosePoolCreatedByBuilder() {
+        WorkflowStorage owner = new WorkflowStorageBuilder()
+                .withUrl(URL)
+                .withCredential("sa", null)
+                .build();
+        assertThat(owner.countJobs()).isEqualTo(0);
+        owner.close();
+        
+        Throwable thrown = catchThrowable(owner::countJobs);
+        assertThat(thrown).isInstanceOf(WorkflowException.class)
+            .hasCauseInstanceOf(SQLException.class);
+    }
+    
+    @Test
+    public void findLinksByTarget_shouldFetchOnlyKeysReadByMappers() {
+        Job job1 = workflowFactory.createJobBuilder("job1").build();
+        Job job2 = workflowFactory.createJobBuilder("job2").build();
+        Job job3 = workflowFactory.createJobBuilder("job3").build();
+        storage.addWorkflow(workflowFactory.createWorkflowBuilder("workflow1")
+                .link(job1, job3, workflowFactory.createKeyMapper("a", "x"))
+                .link(job2, job3, new AnyKeyMapper())
+                .build());
+        storage.storeJob(storage.claimNextReadyJob("runner").get(), JobStatus.COMPLETED, output(1, 2), null);
+        storage.storeJob(storage.claimNextReadyJob("runner").get(), JobStatus.COMPLETED, output(3, 4), null);
+        
+        List<JobLink> links = storage.findLinksByTarget((ManagedJob)job3);
+        assertThat(links).hasSize(2);
+        for (JobLink link: links) {
+            ParameterSet output = link.getSource().getOutputParameters();
+            if (link.getSource().getId() == job1.getId()) {
+                assertThat(output).containsOnlyKeys("a").containsEntry("a", 1);
+            } else {
+                assertThat(output).containsOnlyKeys("a", "b").containsEntry("b", 4);
+            }
+        }
+    }
+    
+    @Test
+    public void findLinksByTarget_shouldFetchWholeOutputsWithoutIndex() {
+        JdbcWorkflowStorage plain = new JdbcWorkflowStorage(new DirectDataSource(URL, "sa", null));
+        Job job1 = workflowFactory.createJobBuilder("job1").build();
+        Job job2 = workflowFactory.createJobBuilder("job2").build();
+        plain.addWorkflow(workflowFactory.createWorkflowBuilder("workflow1")
+                .link(job1, job2, workflowFactory.createKeyMapper("a", "x"))
+                .build());
+        plain.storeJob(plain.claimNextReadyJob("runner").get(), JobStatus.COMPLETED, output(1, 2), null);
+        
+        List<JobLink> links = plain.findLinksByTarget((ManagedJob)job2);
+        assertThat(links).hasSize(1);
+        assertThat(links.get(0).getSource().getOutputParameters()).containsOnlyKeys("a", "b");
+    }
+    
+    @Test
+    public void findLinksByTarget_shouldReadOutputsStoredWithoutIndex() {
+        JdbcWorkflowStorage plain = new JdbcWorkflowStorage(new DirectDataSource(URL, "sa", null));
+        Job job1 = workflowFactory.createJobBuilder("job1").build();
+        Job job2 = workflowFactory.createJobBuilder("job2").build();
+        storage.addWorkflow(workflowFactory.createWorkflowBuilder("workflow1")
+                .link(job1, job2, workflowFactory.createKeyMapper("a", "x"))
+                .build());
+        plain.storeJob(plain.claimNextReadyJob("runner").get(), JobStatus.COMPLETED, output(1, 2), null);
+        
+        List<JobLink> links = storage.findLinksByTarget((ManagedJob)job2);
+        assertThat(links).hasSize(1);
+        assertThat(links.get(0).getSource().getOutputParameters()).containsOnlyKeys("a").containsEntry("a", 1);
+        assertThat(storage.getOutputParameters(job1.getId(), Collections.singleton("a")))
+            .containsOnlyKeys("a").containsEntry("a", 1);
+    }
+    
+    @Test
+    public void getStandardOutput_shouldReadStreamedLines() {
+        Job job = workflowFactory.createJobBuilder("job1").build();
+        storage.addWorkflow(workflowFactory.createWorkflowBuilder("workflow1").jobs(job).build());
+        Stream<String> lines = IntStream.range(0, 1000).mapToObj(i->"line" + i);
+        storage.storeJob(storage.claimNextReadyJob("runner").get(), JobStatus.COMPLETED, output(1, 2), lines);
+        
+        List<String> stored = storage.getStandardOutput(job.getId());
+        assertThat(stored).hasSize(1000);
+        assertThat(stored.get(999)).isEqualTo("line999");
+    }
+    
+    @Test
+    public void storeJob_shouldRollBackPromotionOnFailure() {
+        Job job1 = workflowFactory.createJobBuilder("job1").build();
+        Job job2 = workflowFactory.createJobBuilder("job2").build();
+        Job job3 = workflowFactory.createJobBuilder("job3").build();
+        storage.addWorkflow(workflowFactory.createWorkflowBuilder("workflow1")
+                .link(job1, job3, workflowFactory.createKeyMapper("a", "x"))
+                .link(job2, job3, workflowFactory.createKeyMapper("b", "y"))
+                .build());
+        Job claimed1 = storage.claimNextReadyJob("runner").get();
+        Job claimed2 = storage.claimNextReadyJob("runner").get();
+        
+        Stream<String> broken = Stream.of("line").map(line->{ throw new IllegalStateException(); });
+        Throwable thrown = catchThrowable(()->storage.storeJob(claimed1, JobStatus.COMPLETED, output(1, 2), broken));
+        assertThat(thrown).isInstanceOf(IllegalStateException.class);
+        assertThat(storage.getJobStatus(claimed1.getId())).isEqualTo(JobStatus.RUNNING);
+        
+        storage.storeJob(claimed1, JobStatus.COMPLETED, output(1, 2), null);
+        storage.storeJob(claimed1, JobStatus.COMPLETED, output(1, 2), null);
+        assertThat(storage.getJobStatus(job3.getId())).isEqualTo(JobStatus.WAITING);
+        
+        storage.storeJob(claimed2, JobStatus.COMPLETED, output(3, 4), null);
+        assertThat(storage.getJobStatus(job3.getId())).isEqualTo(JobStatus.READY);
+    }
+    
+    @Test
+    public void getOutputParameters_shouldReadOnlySpecifiedKeys() {
+        Job job = workflowFactory.createJobBuilder("job1").build();
+        storage.addWorkflow(workflowFactory.createWorkflowBuilder("workflow1").jobs(job).build());
+        storage.storeJob(storage.claimNextReadyJob("runner").get(), JobStatus.COMPLETED, output(1, 2), null);
+        
+        ParameterSet output = storage.getOutputParameters(job.getId(), new HashSet<>(Arrays.asList("b", "c")));
+        assertThat(output).containsOnlyKeys("b").containsEntry("b", 2);
+    }
+    
+    @Test
+    public void findJobsByOutputRange_shouldFindJobsWithinRange() {
+        Job[] jobs = new Job[4];
+        for (int i = 0; i < jobs.length; i++) {
+            jobs[i] = workflowFactory.createJobBuilder("job" + i).build();
+        }
+        storage.addWorkflow(workflowFactory.createWorkflowBuilder("workflow1").jobs(jobs).build());
+        storeOutput("energy", -1.5);
+        storeOutput("energy", 2L);
+        storeOutput("energy", "high");
+        storeOutput("energy", Double.NaN);
+        
+        assertThat(storage.findJobsByOutputRange("energy", Double.NEGATIVE_INFINITY, 2.0))
+            .extracting(Job::getId).containsExactly(jobs[0].getId());
+        assertThat(storage.findJobsByOutputRange("energy", -1.0, Double.POSITIVE_INFINITY))
+            .extracting(Job::getId).containsExactly(jobs[1].getId());
+        assertThat(storage.findJobsByOutputRange("energy", -10.0, 10.0))
+            .extracting(Job::getId).containsExactly(jobs[0].getId(), jobs[1].getId());
+        assertThat(storage.findJobsByOutputText("energy", "high"))
+            .extracting(Job::getId).containsExactly(jobs[2].getId());
+    }
+    
+    @Test
+    public void findJobsByOutputRange_shouldFailWithoutIndex() {
+        JdbcWorkflowStorage plain = new JdbcWorkflowStorage(new DirectDataSource(URL, "sa", null));
+        Throwable thrown = catchThrowable(()->plain.findJobsByOutputRange("energy", 0.0, 1.0));
+        assertThat(thrown).isInstanceOf(WorkflowException.class).hasMessageContaining("parameter index");
+    }
+    
+    private static void storeOutput(String key, Object value) {
+        ParameterSet output = new SimpleParameterSet();
+        output.put(key, value);
+        storage.storeJob(storage.claimNextReadyJob("runner").get(), JobStatus.COMPLETED, output, null);
+    }
+    
+    private static ParameterSet output(int a, int b) {
+        ParameterSet output = new SimpleParameterSet();
+        output.put("a", a);
+        output.put("b", b);
+        return output;
+    }
+    
+    /**
+     * The mapper which does not declare the keys it reads.
+     */
+    @SuppressWarnings("serial")
+    private static class AnyKeyMapper implements ParameterSetMapper {
+
+        @Override
+        public void mapParameterSet(ParameterSet source, ParameterSet target) {
+            target.putAll(source);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/* 
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.i49.unite.core.storage.jdbc;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.Collections;
+
+import org.junit.Test;
+
+import io.github.i49.unite.api.base.ParameterSet;
+import io.github.i49.unite.api.base.WorkflowException;
+import io.github.i49.unite.api.workflow.ParameterSetMapper;
+import io.github.i49.unite.core.workflow.mappers.KeyMapParameterSetMapper;
+import io.github.i49.unite.core.workflow.mappers.MergingParameterSetMapper;
+
+/**
+ * Unit test of {@link MapperInterner}.
+ */
+public class MapperInternerTest {
+
+    private final MapperInterner interner = MapperInterner.getInstance();
+    
+    @Test
+    public void marshal_shouldStoreSingletonByClassNameOnly() {
+        ParameterSetMapper mapper = MergingParameterSetMapper.INSTANCE;
+        assertThat(interner.marshal(mapper)).isNull();
+        assertThat(interner.unmarshal(mapper.getClass().getName(), null)).isSameAs(mapper);
+    }
+    
+    @Test
+    public void unmarshal_shouldReturnSameInstanceForSameBinary() {
+        String className = KeyMapParameterSetMapper.class.getName();
+        byte[] bytes1 = interner.marshal(new KeyMapParameterSetMapper(Collections.singletonMap("a", "b")));
+        byte[] bytes2 = interner.marshal(new KeyMapParameterSetMapper(Collections.singletonMap("a", "b")));
+        byte[] bytes3 = interner.marshal(new KeyMapParameterSetMapper(Collections.singletonMap("a", "c")));
+        
+        ParameterSetMapper mapper1 = interner.unmarshal(className, bytes1);
+        assertThat(interner.unmarshal(className, bytes2)).isSameAs(mapper1);
+        assertThat(interner.unmarshal(className, bytes3)).isNotSameAs(mapper1);
+    }
+    
+    @Test
+    public void unmarshal_shouldNotShareUserMappers() {
+        String className = CountingMapper.class.getName();
+        byte[] bytes = interner.marshal(new CountingMapper());
+        
+        ParameterSetMapper mapper1 = interner.unmarshal(className, bytes);
+        assertThat(interner.unmarshal(className, bytes)).isNotSameAs(mapper1);
+    }
+    
+    @Test
+    public void unmarshal_shouldThrowIfNotSingleton() {
+        String className = KeyMapParameterSetMapper.class.getName();
+        assertThatThrownBy(()->interner.unmarshal(className, null)).isInstanceOf(WorkflowException.class);
+    }
+    
+    /**
+     * The stateful mapper which must not be shared.
+     */
+    @SuppressWarnings("serial")
+    private static class CountingMapper implements ParameterSetMapper {
+        
+        private int count;
+
+        @Override
+        public void mapParameterSet(ParameterSet source, ParameterSet target) {
+            target.put("count", ++count);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+/* 
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.i49.unite.core.storage.jdbc;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.junit.Assume.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import io.github.i49.unite.api.workflow.Job;
+import io.github.i49.unite.api.workflow.WorkflowBuilder;
+import io.github.i49.unite.api.workflow.WorkflowFactory;
+import io.github.i49.unite.core.storage.ReadyJobChannel;
+import io.github.i49.unite.core.storage.util.DirectDataSource;
+import io.github.i49.unite.core.storage.util.PooledDataSource;
+
+/**
+ * Tests of the PostgreSQL dialect, which run only with the "postgresql" profile
+ * against the server given by the system property "unite.test.postgresql.url".
+ */
+public class PostgreSQLTest {
+
+    private static final int RUNNERS = 4;
+    private static final int JOBS = 100;
+    
+    private static PooledDataSource dataSource;
+    
+    private PostgreSQLReadyJobChannel channel;
+    private JdbcWorkflowStorage storage;
+    private WorkflowFactory workflowFactory;
+    
+    @BeforeClass
+    public static void setUpOnce() {
+        String url = System.getProperty("unite.test.postgresql.url");
+        assumeTrue(url != null && !url.isEmpty());
+        dataSource = new PooledDataSource(new DirectDataSource(url, 
+                System.getProperty("unite.test.postgresql.user"), 
+                System.getProperty("unite.test.postgresql.password")), 
+                1, RUNNERS + 2);
+    }
+    
+    @AfterClass
+    public static void tearDownOnce() {
+        if (dataSource != null) {
+            dataSource.close();
+        }
+    }
+    
+    @Before
+    public void setUp() {
+        channel = new PostgreSQLReadyJobChannel(dataSource);
+        storage = new JdbcWorkflowStorage(dataSource, channel);
+        storage.format();
+        workflowFactory = WorkflowFactory.newInstance();
+    }
+    
+    @After
+    public void tearDown() {
+        storage.clear();
+    }
+    
+    @Test
+    public void claimNextReadyJob_shouldClaimEachJobOnce() throws Exception {
+        WorkflowBuilder builder = workflowFactory.createWorkflowBuilder("workflow1");
+        for (int i = 0; i < JOBS; i++) {
+            builder.jobs(workflowFactory.createJobBuilder("job" + i).build());
+        }
+        storage.addWorkflow(builder.build());
+        
+        Set<Long> claimed = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(RUNNERS);
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < RUNNERS; i++) {
+                String runnerId = "runner" + i;
+                futures.add(executor.submit(()->{
+                    int count = 0;
+                    Optional<Job> job;
+                    while ((job = storage.claimNextReadyJob(runnerId)).isPresent()) {
+                        assertThat(claimed.add(job.get().getId())).isTrue();
+                        count++;
+                    }
+                    return count;
+                }));
+            }
+            int total = 0;
+            for (Future<Integer> future: futures) {
+                total += future.get();
+            }
+            assertThat(total).isEqualTo(JOBS);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(claimed).hasSize(JOBS);
+    }
+    
+    @Test
+    public void subscribe_shouldReceiveNotification() throws InterruptedException {
+        // The first event is delivered when the channel has started listening.
+        CountDownLatch listening = new CountDownLatch(1);
+        CountDownLatch notified = new CountDownLatch(2);
+        ReadyJobChannel.Subscription subscription = channel.subscribe(()->{
+            listening.countDown();
+            notified.countDown();
+        });
+        try {
+            assertThat(listening.await(10, TimeUnit.SECONDS)).isTrue();
+            storage.addWorkflow(workflowFactory.createWorkflowBuilder("workflow1")
+                    .jobs(workflowFactory.createJobBuilder("job1").build())
+                    .build());
+            assertThat(notified.await(10, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            subscription.close();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/* 
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.i49.unite.core.storage.jdbc;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import io.github.i49.unite.core.storage.util.DirectDataSource;
+
+/**
+ * Checks that the scheduling queries use the indexes of the schema.
+ */
+public class QueryPlanTest {
+
+    private static DirectDataSource dataSource;
+    
+    @BeforeClass
+    public static void setUpOnce() {
+        dataSource = new DirectDataSource("jdbc:hsqldb:mem:plan", "sa", null);
+        new JdbcWorkflowStorage(dataSource).format();
+    }
+    
+    @Test
+    public void findFirstJobByStatus_shouldUseStatusIndex() throws SQLException {
+        assertThat(explain(SqlCommand.FIND_FIRST_JOB_BY_STATUS)).contains("JOB_STATUS_INDEX");
+    }
+
+    @Test
+    public void findClaimableJobId_shouldUseStatusIndex() throws SQLException {
+        assertThat(explain(SqlCommand.FIND_CLAIMABLE_JOB_ID)).contains("JOB_STATUS_INDEX");
+    }
+
+    @Test
+    public void findLinksByTarget_shouldNotScanTables() throws SQLException {
+        assertThat(explain(SqlCommand.FIND_LINKS_BY_TARGET)).doesNotContain("FULL SCAN");
+    }
+
+    @Test
+    public void findOutputEntriesByTarget_shouldNotScanTables() throws SQLException {
+        assertThat(explain(SqlCommand.FIND_OUTPUT_ENTRIES_BY_TARGET)).doesNotContain("FULL SCAN");
+    }
+
+    @Test
+    public void findJobsByOutputRange_shouldUseNumberIndex() throws SQLException {
+        assertThat(explain(SqlCommand.FIND_JOBS_BY_OUTPUT_RANGE)).contains("JOB_PARAMETER_NUMBER_INDEX");
+    }
+
+    @Test
+    public void findJobsByOutputText_shouldUseTextIndex() throws SQLException {
+        assertThat(explain(SqlCommand.FIND_JOBS_BY_OUTPUT_TEXT)).contains("JOB_PARAMETER_TEXT_INDEX");
+    }
+
+    @Test
+    public void promoteSuccessors_shouldNotScanTables() throws SQLException {
+        assertThat(explain(SqlCommand.PROMOTE_SUCCESSORS)).doesNotContain("FULL SCAN");
+    }
+    
+    private static String explain(SqlCommand command) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        try (Connection c = dataSource.getConnection();
+             PreparedStatement s = c.prepareStatement("EXPLAIN PLAN FOR " + command.getSql(Dialect.HSQLDB));
+             ResultSet rs = s.executeQuery()) {
+            while (rs.next()) {
+                plan.append(rs.getString(1)).append('\n');
+            }
+        }
+        return plan.toString();
+    }
+}
@@ -0,0 +1,54 @@
+/* 
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.i49.unite.core.storage.jdbc;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.MissingResourceException;
+
+import org.junit.Test;
+
+/**
+ * Unit test of {@link SqlCommand}.
+ */
+public class SqlCommandTest {
+
+    @Test
+    public void getSql_shouldReturnOverrideOfDialect() {
+        assertThat(SqlCommand.PROMOTE_SUCCESSORS.getSql(Dialect.MYSQL)).contains("INNER JOIN");
+        assertThat(SqlCommand.PROMOTE_SUCCESSORS.getSql(Dialect.HSQLDB)).doesNotContain("INNER JOIN");
+    }
+    
+    @Test
+    public void getSql_shouldReturnCommonStatementIfNotOverridden() {
+        assertThat(SqlCommand.CLAIM_JOB.getSql(Dialect.POSTGRESQL))
+            .isEqualTo(SqlCommand.CLAIM_JOB.getSql(Dialect.HSQLDB));
+    }
+    
+    @Test
+    public void getSql_shouldExpandList() {
+        String sql = SqlCommand.FIND_TASKS_BY_JOBS.getSql(Dialect.HSQLDB);
+        assertThat(sql).doesNotContain("{0}");
+        assertThat(sql.chars().filter(c->c == '?').count()).isEqualTo(SqlCommand.FIND_TASKS_BY_JOBS.getListSize());
+    }
+    
+    @Test
+    public void getSql_shouldThrowIfUndefinedForDialect() {
+        assertThat(SqlCommand.CLAIM_NEXT_JOB.getSql(Dialect.POSTGRESQL)).contains("SKIP LOCKED");
+        assertThatThrownBy(()->SqlCommand.CLAIM_NEXT_JOB.getSql(Dialect.HSQLDB))
+            .isInstanceOf(MissingResourceException.class);
+    }
+}
@@ -0,0 +1,74 @@
+/* 
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.i49.unite.core.storage.jdbc;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.Test;
+
+import io.github.i49.unite.api.base.WorkflowException;
+
+/**
+ * Unit test of {@link StandardOutputCodec}.
+ */
+public class StandardOutputCodecTest {
+
+    @Test
+    public void decode_shouldRestoreEncodedLines() throws IOException {
+        String[] lines = { "Hello", "", "こんにちは", "tab\tseparated" };
+        byte[] content = encode(lines);
+        assertThat(StandardOutputCodec.decode(new ByteArrayInputStream(content))).containsExactly(lines);
+    }
+    
+    @Test
+    public void encode_shouldCompressRepeatedLines() throws IOException {
+        String[] lines = new String[10000];
+        for (int i = 0; i < lines.length; i++) {
+            lines[i] = "The quick brown fox jumps over the lazy dog";
+        }
+        byte[] content = encode(lines);
+        assertThat(content.length).isLessThan(10000);
+        assertThat(StandardOutputCodec.decode(new ByteArrayInputStream(content))).hasSize(10000);
+    }
+    
+    @Test
+    public void decode_shouldFailOnTruncatedContent() throws IOException {
+        ByteArrayOutputStream truncated = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(truncated)) {
+            out.write(new byte[] { 0, 0, 0, 5, 'H', 'e', 'l', 'l', 'o' });
+        }
+        Throwable thrown = catchThrowable(()->StandardOutputCodec.decode(new ByteArrayInputStream(truncated.toByteArray())));
+        assertThat(thrown).isInstanceOf(WorkflowException.class);
+    }
+    
+    @Test
+    public void decode_shouldFailOnMalformedContent() {
+        Throwable thrown = catchThrowable(()->StandardOutputCodec.decode(new ByteArrayInputStream(new byte[] { 1, 2, 3 })));
+        assertThat(thrown).isInstanceOf(WorkflowException.class);
+    }
+    
+    private static byte[] encode(String[] lines) throws IOException {
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        StandardOutputCodec.encode(Arrays.asList(lines).iterator(), content);
+        return content.toByteArray();
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.i49.unite.core.storage.memory;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import io.github.i49.unite.api.base.WorkflowException;
+import io.github.i49.unite.api.workflow.Job;
+import io.github.i49.unite.api.workflow.JobStatus;
+import io.github.i49.unite.api.workflow.Workflow;
+import io.github.i49.unite.api.workflow.WorkflowFactory;
+import io.github.i49.unite.core.storage.ReadyJobChannel;
+import io.github.i49.unite.core.storage.WorkflowStorage;
+import io.github.i49.unite.core.storage.util.WorkflowStorageBuilder;
+import io.github.i49.unite.core.workflow.ManagedJob;
+
+/**
+ * Unit test of {@link InMemoryWorkflowStorage}.
+ */
+public class InMemoryWorkflowStorageTest {
+
+    private WorkflowStorage storage;
+    private WorkflowFactory workflowFactory;
+
+    @Before
+    public void setUp() {
+        storage = new WorkflowStorageBuilder().withInMemoryStorage().build();
+        workflowFactory = WorkflowFactory.newInstance();
+    }
+
+    @Test
+    public void build_shouldCreateInMemoryStorage() {
+        assertThat(storage).isInstanceOf(InMemoryWorkflowStorage.class);
+    }
+
+    @Test
+    public void addWorkflow_shouldIndexJobsByStatus() {
+        Job job1 = workflowFactory.createJobBuilder("job1").build();
+        Job job2 = workflowFactory.createJobBuilder("job2").build();
+        Job job3 = workflowFactory.createJobBuilder("job3").build();
+        Workflow workflow = workflowFactory.createWorkflowBuilder("workflow1")
+                .link(job1, job3)
+                .link(job2, job3)
+                .build();
+        storage.addWorkflow(workflow);
+
+        assertThat(storage.countWorkflows()).isEqualTo(1);
+        assertThat(storage.countJobs()).isEqualTo(3);
+        assertThat(storage.findJobsByStatus(JobStatus.READY)).extracting(Job::getId)
+            .containsExactly(job1.getId(), job2.getId());
+        assertThat(storage.findJobsByStatus(JobStatus.WAITING)).extracting(Job::getId)
+            .containsExactly(job3.getId());
+        assertThat(storage.findLinksByTarget((ManagedJob)job3)).hasSize(2);
+        assertThat(storage.findNextJobs(job1)).containsExactly(job3.getId());
+    }
+
+    @Test
+    public void findJobById_shouldReturnCopyOfStoredJob() {
+        Job job = workflowFactory.createJobBuilder("job1").input("x", 1).build();
+        storage.addWorkflow(workflowFactory.createWorkflowBuilder("workflow1").jobs(job).build());
+
+        Job found = storage.findJobById(job.getId());
+        found.getInputParameters().put("x", 2);
+        assertThat(found).isNotSameAs(job);
+        assertThat(storage.getInputParameters(job.getId())).containsEntry("x", 1);
+    }
+
+    @Test
+    public void claimNextReadyJob_shouldPromoteSuccessorAfterAllPredecessors() {
+        Job job1 = workflowFactory.createJobBuilder("job1").build();
+        Job job2 = workflowFactory.createJobBuilder("job2").build();
+        Job job3 = workflowFactory.createJobBuilder("job3").build();
+        Workflow workflow = workflowFactory.createWorkflowBuilder("workflow1")
+                .link(job1, job3)
+                .link(job2, job3)
+                .build();
+        storage.addWorkflow(workflow);
+
+        Job claimed1 = storage.claimNextReadyJob("runner").get();
+        Job claimed2 = storage.claimNextReadyJob("runner").get();
+        assertThat(claimed1.getId()).isEqualTo(job1.getId());
+        assertThat(claimed2.getId()).isEqualTo(job2.getId());
+        assertThat(storage.claimNextReadyJob("runner")).isEmpty();
+
+        complete(claimed1);
+        assertThat(storage.getJobStatus(job3.getId())).isSameAs(JobStatus.WAITING);
+        complete(claimed2);
+        assertThat(storage.getJobStatus(job3.getId())).isSameAs(JobStatus.READY);
+
+        Optional<Job> claimed3 = storage.claimNextReadyJob("runner");
+        assertThat(claimed3.map(Job::getId)).contains(job3.getId());
+        assertThat(storage.getJobStatus(job3.getId())).isSameAs(JobStatus.RUNNING);
+    }
+
+    @Test
+    public void subscribeReadyJobs_shouldNotifyNewReadyJobs() {
+        AtomicInteger events = new AtomicInteger();
+        Job job1 = workflowFactory.createJobBuilder("job1").build();
+        Job job2 = workflowFactory.createJobBuilder("job2").build();
+        try (ReadyJobChannel.Subscription subscription = storage.subscribeReadyJobs(events::incrementAndGet)) {
+            storage.addWorkflow(workflowFactory.createWorkflowBuilder("workflow1").link(job1, job2).build());
+            assertThat(events.get()).isEqualTo(1);
+            complete(storage.claimNextReadyJob("runner").get());
+            assertThat(events.get()).isEqualTo(2);
+            complete(storage.claimNextReadyJob("runner").get());
+            assertThat(events.get()).isEqualTo(2);
+        }
+        storage.addWorkflow(workflowFactory.createWorkflowBuilder("workflow2")
+                .jobs(workflowFactory.createJobBuilder("job3").build())
+                .build());
+        assertThat(events.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void clear_shouldRemoveAll() {
+        Job job1 = workflowFactory.createJobBuilder("job1").build();
+        storage.addWorkflow(workflowFactory.createWorkflowBuilder("workflow1").jobs(job1).build());
+        storage.clear();
+
+        assertThat(storage.countWorkflows()).isEqualTo(0);
+        assertThat(storage.countJobs()).isEqualTo(0);
+        assertThat(storage.findFirstJobByStatus(JobStatus.READY)).isEmpty();
+    }
+
+    @Test
+    public void findJobsByOutputText_shouldFindJobsOnlyWithIndex() {
+        Job job1 = workflowFactory.createJobBuilder("job1").build();
+        storage.addWorkflow(workflowFactory.createWorkflowBuilder("workflow1").jobs(job1).build());
+        storage.storeJob(job1, JobStatus.COMPLETED, Collections.singletonMap("phase", "solid"), null);
+        
+        Throwable thrown = catchThrowable(()->storage.findJobsByOutputText("phase", "solid"));
+        assertThat(thrown).isInstanceOf(WorkflowException.class);
+        
+        ((InMemoryWorkflowStorage)storage).setParameterIndexEnabled(true);
+        assertThat(storage.findJobsByOutputText("phase", "solid")).extracting(Job::getId).containsExactly(job1.getId());
+        assertThat(storage.findJobsByOutputText("phase", "Solid")).isEmpty();
+    }
+
+    private void complete(Job job) {
+        storage.storeJob(job, JobStatus.COMPLETED, Collections.emptyMap(), Stream.empty());
+    }
+}
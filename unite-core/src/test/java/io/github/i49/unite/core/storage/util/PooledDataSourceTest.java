@@ -0,0 +1,140 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.i49.unite.core.storage.util;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.time.Duration;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit test of {@link PooledDataSource}.
+ */
+public class PooledDataSourceTest {
+
+    private static final String URL = "jdbc:hsqldb:mem:pool";
+
+    private PooledDataSource dataSource;
+
+    @Before
+    public void setUp() {
+        dataSource = new PooledDataSource(new DirectDataSource(URL, "sa", null), 1, 2)
+                .setMaximumWait(Duration.ofMillis(100));
+    }
+
+    @After
+    public void tearDown() {
+        dataSource.close();
+    }
+
+    @Test
+    public void getConnection_shouldReuseReturnedConnection() throws SQLException {
+        try (Connection c = dataSource.getConnection()) {
+            assertThat(c.isClosed()).isFalse();
+        }
+        try (Connection c = dataSource.getConnection()) {
+            assertThat(c.isClosed()).isFalse();
+        }
+        assertThat(dataSource.getCreatedCount()).isEqualTo(1);
+        assertThat(dataSource.getBorrowedCount()).isEqualTo(2);
+        assertThat(dataSource.getIdleConnections()).isEqualTo(1);
+        assertThat(dataSource.getActiveConnections()).isEqualTo(0);
+    }
+
+    @Test
+    public void getConnection_shouldFailWhenExhausted() throws SQLException {
+        try (Connection c1 = dataSource.getConnection();
+             Connection c2 = dataSource.getConnection()) {
+            assertThat(dataSource.getTotalConnections()).isEqualTo(2);
+            Throwable thrown = catchThrowable(dataSource::getConnection);
+            assertThat(thrown).isInstanceOf(SQLException.class);
+            assertThat(dataSource.getWaitedCount()).isEqualTo(1);
+        }
+        assertThat(dataSource.getIdleConnections()).isEqualTo(2);
+    }
+
+    @Test
+    public void close_shouldInvalidateHandle() throws SQLException {
+        Connection c = dataSource.getConnection();
+        c.close();
+        assertThat(c.isClosed()).isTrue();
+        assertThatThrownBy(c::createStatement).isInstanceOf(SQLException.class);
+    }
+
+    @Test
+    public void close_shouldResetAutoCommit() throws SQLException {
+        try (Connection c = dataSource.getConnection()) {
+            c.setAutoCommit(false);
+        }
+        try (Connection c = dataSource.getConnection()) {
+            assertThat(c.getAutoCommit()).isTrue();
+        }
+    }
+
+    @Test
+    public void statementCache_shouldKeepStatementsAcrossBorrows() throws SQLException {
+        final String sql = "VALUES(1)";
+        try (Connection c = dataSource.getConnection()) {
+            StatementCache cache = StatementCache.of(c);
+            assertThat(cache.checkOut(sql)).isNull();
+            cache.checkIn(sql, c.prepareStatement(sql));
+        }
+        try (Connection c = dataSource.getConnection()) {
+            StatementCache cache = StatementCache.of(c);
+            PreparedStatement statement = cache.checkOut(sql);
+            assertThat(statement).isNotNull();
+            assertThat(statement.isClosed()).isFalse();
+        }
+        assertThat(dataSource.getStatementCacheHits()).isEqualTo(1);
+        assertThat(dataSource.getStatementCacheMisses()).isEqualTo(1);
+    }
+
+    @Test
+    public void release_shouldEvictExpiredConnections() throws SQLException {
+        dataSource.setIdleTimeout(Duration.ZERO);
+        try (Connection c1 = dataSource.getConnection();
+             Connection c2 = dataSource.getConnection()) {
+        }
+        assertThat(dataSource.getTotalConnections()).isEqualTo(1);
+        assertThat(dataSource.getDestroyedCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void getConnection_shouldEvictExpiredConnections() throws SQLException {
+        try (Connection c1 = dataSource.getConnection();
+             Connection c2 = dataSource.getConnection()) {
+        }
+        assertThat(dataSource.getIdleConnections()).isEqualTo(2);
+        dataSource.setIdleTimeout(Duration.ZERO);
+        try (Connection c = dataSource.getConnection()) {
+            assertThat(dataSource.getTotalConnections()).isEqualTo(1);
+        }
+        assertThat(dataSource.getDestroyedCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void getConnection_shouldNotSupportCredential() {
+        Throwable thrown = catchThrowable(()->dataSource.getConnection("sa", null));
+        assertThat(thrown).isInstanceOf(SQLFeatureNotSupportedException.class);
+    }
+}
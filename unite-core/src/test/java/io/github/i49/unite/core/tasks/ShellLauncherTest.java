@@ -0,0 +1,129 @@
+/* 
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.i49.unite.core.tasks;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.junit.Assume.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import io.github.i49.unite.api.base.Platform;
+import io.github.i49.unite.api.base.WorkflowException;
+
+/**
+ * Unit test of {@link ShellLauncher}.
+ */
+public class ShellLauncherTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    
+    private ShellLauncher launcher;
+    private String scriptPath;
+    
+    @Before
+    public void setUp() throws IOException {
+        assumeFalse(System.getProperty("os.name").toLowerCase().contains("windows"));
+        Path directory = folder.getRoot().toPath();
+        Path script = directory.resolve("exit.sh");
+        Files.write(script, Arrays.asList("sleep 0.2", "exit $1"), StandardCharsets.US_ASCII);
+        this.scriptPath = script.toString();
+        this.launcher = ShellLauncher.launcherFor(Platform.UNIX).setDirectory(directory);
+    }
+    
+    @Test
+    public void launchScript_shouldReturnExitValue() {
+        ProcessResult result = launcher.launchScript(scriptPath, Arrays.asList("3"));
+        assertThat(result.getExitValue()).isEqualTo(3);
+    }
+
+    @Test
+    public void launchScriptAsync_shouldRunProcessesConcurrently() throws Exception {
+        List<CompletableFuture<ProcessResult>> futures = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            futures.add(launcher.launchScriptAsync(scriptPath, Arrays.asList(String.valueOf(i))));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).get(10, TimeUnit.SECONDS);
+        for (int i = 0; i < futures.size(); i++) {
+            assertThat(futures.get(i).get().getExitValue()).isEqualTo(i);
+        }
+    }
+    
+    @Test
+    public void launchScript_shouldNotStallOnFullPipe() throws IOException {
+        Path script = folder.newFile("chatty.sh").toPath();
+        Files.write(script, Arrays.asList(
+                "i=0",
+                "while [ $i -lt 20000 ]; do echo \"line $i of the chatty script\"; i=$((i+1)); done",
+                "echo error >&2"), 
+                StandardCharsets.US_ASCII);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        launcher.setOutput(output);
+        
+        ProcessResult result = launcher.launchScript(script.toString(), Collections.emptyList());
+        
+        assertThat(result.getExitValue()).isEqualTo(0);
+        String[] lines = output.toString().split("\n");
+        assertThat(lines).hasSize(20001);
+        assertThat(lines[19999]).isEqualTo("line 19999 of the chatty script");
+        assertThat(lines[20000]).isEqualTo("error");
+    }
+    
+    @Test
+    public void launchScriptAsync_shouldFailIfOutputCannotBeWritten() throws Exception {
+        Path script = folder.newFile("echo.sh").toPath();
+        Files.write(script, Arrays.asList("echo hello", "sleep 0.2"), StandardCharsets.US_ASCII);
+        launcher.setOutput(new OutputStream() {
+            @Override
+            public void write(int b) {
+                throw new IllegalStateException("Sink failed");
+            }
+        });
+        
+        CompletableFuture<ProcessResult> future = launcher.launchScriptAsync(script.toString(), Collections.emptyList());
+        Throwable thrown = catchThrowable(()->future.get(10, TimeUnit.SECONDS));
+        assertThat(thrown).isInstanceOf(ExecutionException.class).hasCauseInstanceOf(IllegalStateException.class);
+        
+        launcher.setOutput(null);
+        assertThat(launcher.launchScript(scriptPath, Arrays.asList("3")).getExitValue()).isEqualTo(3);
+    }
+    
+    @Test
+    public void launchScriptAsync_shouldFailIfProcessCannotBeStarted() {
+        launcher.setDirectory(folder.getRoot().toPath().resolve("missing"));
+        CompletableFuture<ProcessResult> future = launcher.launchScriptAsync(scriptPath, Collections.emptyList());
+        assertThat(future).isCompletedExceptionally();
+        Throwable thrown = catchThrowable(()->launcher.launchScript(scriptPath, Collections.emptyList()));
+        assertThat(thrown).isInstanceOf(WorkflowException.class);
+    }
+}
@@ -0,0 +1,125 @@
+/* 
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.i49.unite.core.workflow;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import org.junit.Test;
+
+/**
+ * Unit test of {@link PrimitiveParameterSet}.
+ */
+public class PrimitiveParameterSetTest {
+
+    @Test
+    public void put_shouldStoreBoxedValuesAsPrimitives() {
+        PrimitiveParameterSet parameters = new PrimitiveParameterSet();
+        parameters.put("int", 42);
+        parameters.put("long", Long.MIN_VALUE);
+        parameters.put("double", -0.5);
+        parameters.put("boolean", true);
+        parameters.put("string", "hello");
+        parameters.put("null", null);
+        
+        assertThat(parameters.getTypeAt(0)).isEqualTo(PrimitiveParameterSet.Type.INT);
+        assertThat(parameters.getTypeAt(2)).isEqualTo(PrimitiveParameterSet.Type.DOUBLE);
+        assertThat(parameters.getTypeAt(4)).isEqualTo(PrimitiveParameterSet.Type.OBJECT);
+        assertThat(parameters.get("int")).isEqualTo(42);
+        assertThat(parameters.get("long")).isEqualTo(Long.MIN_VALUE);
+        assertThat(parameters.get("double")).isEqualTo(-0.5);
+        assertThat(parameters.get("boolean")).isEqualTo(true);
+        assertThat(parameters).containsEntry("null", null).hasSize(6);
+    }
+    
+    @Test
+    public void getDouble_shouldWidenIntegralValues() {
+        PrimitiveParameterSet parameters = new PrimitiveParameterSet();
+        parameters.putInt("int", 3);
+        parameters.putLong("long", 4L);
+        parameters.put("float", 1.5f);
+        
+        assertThat(parameters.getDouble("int")).isEqualTo(3.0);
+        assertThat(parameters.getDouble("long")).isEqualTo(4.0);
+        assertThat(parameters.getDouble("float")).isEqualTo(1.5);
+        assertThat(parameters.getLong("int")).isEqualTo(3L);
+        assertThatThrownBy(()->parameters.getInt("long")).isInstanceOf(ClassCastException.class);
+        assertThatThrownBy(()->parameters.getDouble("missing")).isInstanceOf(NoSuchElementException.class);
+    }
+    
+    @Test
+    public void remove_shouldKeepOtherEntriesReachable() {
+        PrimitiveParameterSet parameters = new PrimitiveParameterSet();
+        Map<String, Object> expected = new HashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            parameters.putDouble("x" + i, i);
+            expected.put("x" + i, (double)i);
+        }
+        for (int i = 0; i < 1000; i += 3) {
+            assertThat(parameters.remove("x" + i)).isEqualTo((double)i);
+            expected.remove("x" + i);
+        }
+        assertThat(parameters).isEqualTo(expected);
+        assertThat(parameters.hashCode()).isEqualTo(expected.hashCode());
+    }
+    
+    @Test
+    public void iterator_shouldVisitMovedEntryAfterRemoval() {
+        PrimitiveParameterSet parameters = new PrimitiveParameterSet();
+        for (int i = 0; i < 10; i++) {
+            parameters.putInt("k" + i, i);
+        }
+        Iterator<Map.Entry<String, Object>> it = parameters.entrySet().iterator();
+        int visited = 0;
+        while (it.hasNext()) {
+            Map.Entry<String, Object> entry = it.next();
+            visited++;
+            if ((Integer)entry.getValue() % 2 == 0) {
+                it.remove();
+            }
+        }
+        assertThat(visited).isEqualTo(10);
+        assertThat(parameters).containsOnlyKeys("k1", "k3", "k5", "k7", "k9");
+    }
+    
+    @Test
+    public void serialization_shouldRoundTrip() throws IOException, ClassNotFoundException {
+        PrimitiveParameterSet parameters = new PrimitiveParameterSet();
+        parameters.putDouble("energy", -1.25);
+        parameters.putBoolean("converged", false);
+        parameters.put("grid", new double[] { 1.0, 2.0 });
+        
+        ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(byteStream)) {
+            out.writeObject(parameters);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(byteStream.toByteArray()))) {
+            PrimitiveParameterSet restored = (PrimitiveParameterSet)in.readObject();
+            assertThat(restored.getDouble("energy")).isEqualTo(-1.25);
+            assertThat(restored.getBoolean("converged")).isFalse();
+            assertThat(restored.getDoubleArray("grid")).containsExactly(1.0, 2.0);
+        }
+    }
+}
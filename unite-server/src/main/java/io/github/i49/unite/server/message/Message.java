@@ -25,6 +25,19 @@ import io.github.i49.unite.core.common.MessageProvider;
  */
 public enum Message implements MessageProvider {
 
+    /* runner */
+
+    NUMBER_OF_WORKERS_IS_INVALID,
+    POLLING_INTERVAL_IS_INVALID,
+    OUTPUT_CAPTURE_IS_INVALID,
+    WORKFLOW_CACHE_SIZE_IS_INVALID,
+    STANDARD_OUTPUT_CANNOT_BE_READ,
+    JOB_FAILED,
+    INTERRUPTED,
+    REPOSITORY_ACCESS_FAILED,
+
+    /* others */
+
     INTERNAL_ERROR
     ;
 
@@ -15,22 +15,34 @@
  */
 package io.github.i49.unite.server.runner;
 
+import static io.github.i49.unite.server.message.Message.*;
+
 import java.io.IOException;
 import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
 
 import io.github.i49.unite.api.base.ParameterSet;
 import io.github.i49.unite.api.base.Platform;
 import io.github.i49.unite.api.base.WorkflowException;
+import io.github.i49.unite.api.tasks.Task;
 import io.github.i49.unite.api.tasks.TaskContext;
 import io.github.i49.unite.api.workflow.JobStatus;
 import io.github.i49.unite.api.workflow.ParameterSetMapper;
+import io.github.i49.unite.core.storage.ReadyJobChannel;
 import io.github.i49.unite.core.storage.WorkflowStorage;
 import io.github.i49.unite.core.workflow.JobLink;
 import io.github.i49.unite.core.workflow.ManagedJob;
 import io.github.i49.unite.core.workflow.ManagedWorkflow;
+import io.github.i49.unite.core.workflow.PrimitiveParameterSet;
 import io.github.i49.unite.core.workflow.SimpleParameterSet;
 import io.github.i49.unite.server.base.Platforms;
 
@@ -39,44 +51,328 @@ import io.github.i49.unite.server.base.Platforms;
  */
 abstract class AbstractWorkflowRunner implements WorkflowRunner {
     
+    /** The default interval between polls while jobs are arriving. */
+    public static final Duration DEFAULT_MINIMUM_POLLING_INTERVAL = Duration.ofMillis(10);
+    /** The default interval between polls after a long idle period. */
+    public static final Duration DEFAULT_MAXIMUM_POLLING_INTERVAL = Duration.ofSeconds(5);
+    /** The default number of bytes of the job output kept in memory before spilling to a file. */
+    public static final int DEFAULT_OUTPUT_MEMORY_LIMIT = 1024 * 1024;
+    /** The default number of the last lines of the job output to be stored. */
+    public static final int DEFAULT_MAXIMUM_OUTPUT_LINES = 10000;
+    /** The default number of workflows cached by a runner. */
+    public static final int DEFAULT_WORKFLOW_CACHE_SIZE = 256;
+    
+    private static final AtomicInteger sequence = new AtomicInteger();
+    
+    private final String runnerId;
     private final Platform platform;
     private final WorkflowStorage storage;
     private final DirectoryLayoutStrategy layoutStrategy;
+    
+    private volatile Duration minimumPollingInterval = DEFAULT_MINIMUM_POLLING_INTERVAL;
+    private volatile Duration maximumPollingInterval = DEFAULT_MAXIMUM_POLLING_INTERVAL;
+    private volatile int outputMemoryLimit = DEFAULT_OUTPUT_MEMORY_LIMIT;
+    private volatile int maximumOutputLines = DEFAULT_MAXIMUM_OUTPUT_LINES;
+    private volatile WorkflowCache workflowCache = new WorkflowCache(DEFAULT_WORKFLOW_CACHE_SIZE);
+    private volatile boolean primitiveParametersEnabled;
+    private volatile boolean ownsStorage = true;
+    private volatile boolean stopRequested;
+    private final Object signal = new Object();
+    private boolean signaled;
+    private final AtomicLong busyNanos = new AtomicLong();
+    private final AtomicLong idleNanos = new AtomicLong();
 
     protected AbstractWorkflowRunner(WorkflowStorage storage, Path directory) {
+        this.runnerId = generateRunnerId();
         this.platform = Platforms.getCurrent();
         this.storage = storage;
         this.layoutStrategy = new BasicDirectoryLayoutStrategy(directory);
     }
     
+    @Override
+    public String getRunnerId() {
+        return runnerId;
+    }
+    
     @Override
     public Platform getPlatform() {
         return platform;
     }
     
+    @Override
+    public Duration getBusyTime() {
+        return Duration.ofNanos(busyNanos.get());
+    }
+    
+    @Override
+    public Duration getIdleTime() {
+        return Duration.ofNanos(idleNanos.get());
+    }
+    
+    /**
+     * Specifies the range of the interval between polls for READY jobs in {@link #runInfinite()}.
+     * 
+     * @param minimum the interval while jobs are arriving.
+     * @param maximum the interval after a long idle period.
+     * @throws IllegalArgumentException if the minimum is not positive or the maximum is less than the minimum.
+     */
+    public void setPollingInterval(Duration minimum, Duration maximum) {
+        if (minimum.isNegative() || minimum.isZero() || maximum.compareTo(minimum) < 0) {
+            throw new IllegalArgumentException(POLLING_INTERVAL_IS_INVALID.with(minimum, maximum));
+        }
+        this.minimumPollingInterval = minimum;
+        this.maximumPollingInterval = maximum;
+    }
+    
+    /**
+     * Specifies how the standard output of the jobs is captured.
+     * 
+     * @param memoryLimit the number of bytes kept in memory before the output spills 
+     *                    to {@value JobPrintStream#SPILL_FILE_NAME} in the job directory.
+     * @param maximumLines the number of the last lines to be stored, or zero if all lines should be stored.
+     * @throws IllegalArgumentException if any of the arguments is negative.
+     */
+    public void setOutputCapture(int memoryLimit, int maximumLines) {
+        if (memoryLimit < 0 || maximumLines < 0) {
+            throw new IllegalArgumentException(OUTPUT_CAPTURE_IS_INVALID.with(memoryLimit, maximumLines));
+        }
+        this.outputMemoryLimit = memoryLimit;
+        this.maximumOutputLines = maximumLines;
+    }
+    
+    /**
+     * Specifies the number of the workflows cached by this runner.
+     * The workflows are cached to find the directories of their jobs without reading the storage.
+     * The statistics of the cache are reset.
+     * 
+     * @param size the maximum number of the workflows cached, or zero if nothing should be cached.
+     * @throws IllegalArgumentException if the size is negative.
+     */
+    public void setWorkflowCacheSize(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException(WORKFLOW_CACHE_SIZE_IS_INVALID.with(size));
+        }
+        this.workflowCache = new WorkflowCache(size);
+    }
+    
+    /**
+     * Specifies whether the input and the output of the jobs are given to the tasks 
+     * as {@link PrimitiveParameterSet}, which stores the primitive values without boxing.
+     * By default they are given as {@link SimpleParameterSet}.
+     * 
+     * @param enabled {@code true} if the jobs should use {@link PrimitiveParameterSet}.
+     */
+    public void setPrimitiveParametersEnabled(boolean enabled) {
+        this.primitiveParametersEnabled = enabled;
+    }
+    
+    /**
+     * Specifies whether the storage is closed along with this runner, which is {@code true} by default.
+     * 
+     * @param ownsStorage {@code false} if the storage is shared with others and closed by the caller.
+     */
+    public void setStorageOwned(boolean ownsStorage) {
+        this.ownsStorage = ownsStorage;
+    }
+    
+    /**
+     * Returns the number of times the workflow of a job was found in the cache of this runner.
+     * 
+     * @return the number of the cache hits.
+     */
+    public long getWorkflowCacheHits() {
+        return workflowCache.getHitCount();
+    }
+    
+    /**
+     * Returns the number of times the workflow of a job was read from the storage.
+     * 
+     * @return the number of the cache misses.
+     */
+    public long getWorkflowCacheMisses() {
+        return workflowCache.getMissCount();
+    }
+    
     protected WorkflowStorage getStorage() {
         return storage;
     }
     
+    @Override
+    public void close() {
+        if (ownsStorage) {
+            getStorage().close();
+        }
+    }
+    
+    /**
+     * Executes all tasks of the given job and stores the result.
+     * 
+     * @param job the job to execute.
+     */
+    protected void executeJob(ManagedJob job) {
+        long start = System.nanoTime();
+        try (JobContext context = prepareJobOrFail(job)) {
+            try {
+                for (Task task : job.getTasks()) {
+                    task.run(context);
+                }
+            } catch (RuntimeException e) {
+                failJob(job, context, e);
+                throw e;
+            }
+            completeJob(job, context);
+        } finally {
+            busyNanos.addAndGet(System.nanoTime() - start);
+        }
+    }
+    
+    /**
+     * Creates a new backoff of polling with the intervals specified for this runner.
+     * 
+     * @return newly created backoff.
+     */
+    protected PollingBackoff createBackoff() {
+        return new PollingBackoff(minimumPollingInterval, maximumPollingInterval);
+    }
+    
+    /**
+     * Subscribes to the events that jobs have become READY in the storage,
+     * so that this runner waiting for jobs is woken up by them.
+     * 
+     * @return the subscription to be closed when this runner stops waiting for jobs.
+     */
+    protected ReadyJobChannel.Subscription subscribeReadyJobs() {
+        return getStorage().subscribeReadyJobs(this::wakeUp);
+    }
+    
+    /**
+     * Waits until the next poll while no job is available.
+     * The wait ends early if this runner is woken up or stop is requested.
+     * 
+     * @param backoff the backoff of polling.
+     * @throws WorkflowException if the current thread was interrupted.
+     */
+    protected void waitForJobs(PollingBackoff backoff) {
+        long start = System.nanoTime();
+        try {
+            synchronized (signal) {
+                if (!stopRequested && !signaled) {
+                    TimeUnit.NANOSECONDS.timedWait(signal, backoff.next());
+                }
+                signaled = false;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new WorkflowException(INTERRUPTED.toString(), e);
+        } finally {
+            idleNanos.addAndGet(System.nanoTime() - start);
+        }
+    }
+    
+    /**
+     * Wakes up this runner if it is waiting for jobs.
+     * If it is not waiting, its next wait ends immediately.
+     */
+    protected void wakeUp() {
+        synchronized (signal) {
+            signaled = true;
+            signal.notifyAll();
+        }
+    }
+    
+    /**
+     * Requests this runner to stop, waking it up if it is waiting for jobs.
+     */
+    protected void requestStop() {
+        synchronized (signal) {
+            stopRequested = true;
+            signal.notifyAll();
+        }
+    }
+    
+    protected void clearStopRequest() {
+        stopRequested = false;
+    }
+    
+    protected boolean isStopRequested() {
+        return stopRequested;
+    }
+    
     protected JobContext prepareJob(ManagedJob job) {
-        ManagedWorkflow workflow = (ManagedWorkflow)getStorage().getWorkflow(job.getWorkdlowId());
+        ManagedWorkflow workflow = workflowCache.get(job.getWorkdlowId(), 
+                workflowId->(ManagedWorkflow)getStorage().getWorkflow(workflowId));
         Path jobDirectory = createDirectoryForJob(workflow, job);
         ParameterSet inputParameter = prepareInputParameters(job);
         return new JobContextImpl(jobDirectory, inputParameter);
     }
     
+    /**
+     * Prepares the given job, storing it as failed if it cannot be prepared.
+     * 
+     * @param job the job to prepare.
+     * @return the context of the job.
+     * @throws RuntimeException if the job cannot be prepared.
+     */
+    private JobContext prepareJobOrFail(ManagedJob job) {
+        try {
+            return prepareJob(job);
+        } catch (RuntimeException e) {
+            try {
+                getStorage().storeJob(job, JobStatus.FAILED, Collections.emptyMap(), Stream.of(describeFailure(e)));
+            } catch (RuntimeException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+    }
+    
     protected void completeJob(ManagedJob job, JobContext context) {
         JobStatus status = JobStatus.COMPLETED;
         Map<String, Object> jobOutput = context.getOutputParameters();
-        String[] lines = context.getStandardOutputLines();
-        getStorage().storeJob(job, status, jobOutput, lines);
-        for (long nextId: getStorage().findNextJobs(job)) {
-            getStorage().updateJobStatusIfReady(nextId);
+        try (Stream<String> lines = context.getStandardOutputLines()) {
+            getStorage().storeJob(job, status, jobOutput, lines);
         }
     }
     
+    /**
+     * Stores the job as failed, with the reason appended to its standard output.
+     * The successors of the job are left waiting.
+     * 
+     * @param job the failed job.
+     * @param context the context of the job.
+     * @param cause the reason of the failure.
+     */
+    protected void failJob(ManagedJob job, JobContext context, RuntimeException cause) {
+        context.getStandardStream().println(describeFailure(cause));
+        try {
+            Map<String, Object> jobOutput = context.getOutputParameters();
+            try (Stream<String> lines = context.getStandardOutputLines()) {
+                getStorage().storeJob(job, JobStatus.FAILED, jobOutput, lines);
+            }
+        } catch (RuntimeException e) {
+            cause.addSuppressed(e);
+        }
+    }
+    
+    /**
+     * Generates the identifier unique among the processes sharing the storage.
+     * 
+     * @return the identifier of the runner, which has the form of "pid@host-sequence".
+     */
+    private static String generateRunnerId() {
+        String processName = ManagementFactory.getRuntimeMXBean().getName();
+        return processName + "-" + sequence.incrementAndGet();
+    }
+    
+    private static String describeFailure(RuntimeException cause) {
+        return cause.getMessage() != null ? cause.getMessage() : cause.toString();
+    }
+    
     private ParameterSet prepareInputParameters(ManagedJob job) {
         ParameterSet inputParameters = job.getInputParameters();
+        if (primitiveParametersEnabled && !(inputParameters instanceof PrimitiveParameterSet)) {
+            inputParameters = new PrimitiveParameterSet(inputParameters);
+        }
         for (JobLink link: getStorage().findLinksByTarget(job)) {
             ParameterSetMapper mapper = link.getMapper();
             mapper.mapParameterSet(link.getSource().getOutputParameters(), inputParameters);
@@ -108,8 +404,9 @@ abstract class AbstractWorkflowRunner implements WorkflowRunner {
         private JobContextImpl(Path jobDirectory, ParameterSet inputParameters) {
             this.jobDirectory = jobDirectory;
             this.inputParameters = inputParameters;
-            this.outputParameters = new SimpleParameterSet();
-            this.standardStream = new JobPrintStream();
+            this.outputParameters = primitiveParametersEnabled ? new PrimitiveParameterSet() : new SimpleParameterSet();
+            this.standardStream = new JobPrintStream(
+                    jobDirectory.resolve(JobPrintStream.SPILL_FILE_NAME), outputMemoryLimit, maximumOutputLines);
         }
 
         @Override
@@ -138,9 +435,13 @@ abstract class AbstractWorkflowRunner implements WorkflowRunner {
         }
 
         @Override
-        public String[] getStandardOutputLines() {
-            standardStream.flush();
-            return standardStream.getLines();
+        public Stream<String> getStandardOutputLines() {
+            return standardStream.lines();
+        }
+        
+        @Override
+        public void close() {
+            standardStream.close();
         }
     }
 }
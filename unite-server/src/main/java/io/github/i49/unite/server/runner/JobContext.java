@@ -15,11 +15,25 @@
  */
 package io.github.i49.unite.server.runner;
 
+import java.util.stream.Stream;
+
 import io.github.i49.unite.api.tasks.TaskContext;
 
 /**
  */
-public interface JobContext extends TaskContext {
+public interface JobContext extends TaskContext, AutoCloseable {
 
-    String[] getStandardOutputLines();
+    /**
+     * Opens the lines of the standard output captured so far.
+     * The returned stream reads the output lazily and must be closed by the caller.
+     * 
+     * @return the stream of the captured lines.
+     */
+    Stream<String> getStandardOutputLines();
+    
+    /**
+     * Releases the resources of the current job, such as the file its output spilled to.
+     */
+    @Override
+    void close();
 }
@@ -15,53 +15,227 @@
  */
 package io.github.i49.unite.server.runner;
 
+import static io.github.i49.unite.server.message.Message.*;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.io.PrintStream;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import io.github.i49.unite.api.base.WorkflowException;
 
 /**
+ * The standard stream of a job, which captures everything printed by the tasks
+ * and echoes it to {@link System#out}.
+ * 
+ * <p>
+ * The captured output is kept in memory up to the given limit.
+ * Beyond the limit the output spills to a file, and nothing more is kept in memory.
+ * {@link #lines()} reads back the captured output line by line without loading all of it,
+ * keeping only the last lines if the maximum number of lines is given.
+ * </p>
  */
 public class JobPrintStream extends PrintStream {
     
+    /**
+     * The name of the file in the job directory to which the output spills.
+     */
+    public static final String SPILL_FILE_NAME = "stdout.log";
+    
+    private final int maximumLines;
+    
+    /**
+     * Constructs this stream which keeps all output in memory.
+     */
     public JobPrintStream() {
-        super(new CompositeOutputStream());
+        this(null, Integer.MAX_VALUE, 0);
     }
     
-    public String[] getLines() {
-        String captured = getCaptureStream().toString();
-        return captured.split("\r?\n");
+    /**
+     * Constructs this stream.
+     * 
+     * @param spillFile the file to which the output spills, can be {@code null} if the output never spills.
+     * @param memoryLimit the number of bytes kept in memory before the output spills.
+     * @param maximumLines the number of the last lines returned by {@link #lines()}, 
+     *                     or zero if all lines should be returned.
+     */
+    public JobPrintStream(Path spillFile, int memoryLimit, int maximumLines) {
+        super(new CaptureOutputStream(spillFile, memoryLimit, System.out));
+        this.maximumLines = maximumLines;
     }
     
-    private ByteArrayOutputStream getCaptureStream() {
-        CompositeOutputStream composite = (CompositeOutputStream)this.out;
-        return composite.captureStream;
+    /**
+     * Opens the lines captured so far.
+     * The lines are read lazily from the memory or the spilled file, 
+     * and the returned stream must be closed to release the file.
+     * If the maximum number of lines is given, the captured output is read twice,
+     * first to count the lines and then to return the last lines of them.
+     * 
+     * @return the stream of the captured lines, or the last lines of them if the maximum number of lines is given.
+     * @throws WorkflowException if the spilled output cannot be read.
+     */
+    public Stream<String> lines() {
+        flush();
+        long skipped = 0;
+        if (maximumLines > 0) {
+            try (LineIterator counter = new LineIterator(openReader())) {
+                long count = 0;
+                while (counter.hasNext()) {
+                    counter.next();
+                    count++;
+                }
+                skipped = Math.max(count - maximumLines, 0);
+            }
+        }
+        LineIterator lines = new LineIterator(openReader());
+        Spliterator<String> spliterator = Spliterators.spliteratorUnknownSize(
+                lines, Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).skip(skipped).onClose(lines::close);
+    }
+    
+    /**
+     * Checks if the output has spilled to the file.
+     * 
+     * @return {@code true} if the output has spilled.
+     */
+    public boolean hasSpilled() {
+        return getCaptureStream().file != null;
     }
     
-    private static class CompositeOutputStream extends OutputStream {
+    private CaptureOutputStream getCaptureStream() {
+        return (CaptureOutputStream)this.out;
+    }
+    
+    private BufferedReader openReader() {
+        try {
+            return new BufferedReader(new InputStreamReader(
+                    getCaptureStream().openInputStream(), Charset.defaultCharset()));
+        } catch (IOException e) {
+            throw new WorkflowException(STANDARD_OUTPUT_CANNOT_BE_READ.toString(), e);
+        }
+    }
+    
+    /**
+     * The iterator over the lines read from the captured output.
+     */
+    private static class LineIterator implements Iterator<String>, AutoCloseable {
         
-        private ByteArrayOutputStream captureStream;
+        private final BufferedReader reader;
+        private String nextLine;
         
-        private CompositeOutputStream() {
-            this.captureStream = new ByteArrayOutputStream();
+        private LineIterator(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (this.nextLine == null) {
+                try {
+                    this.nextLine = this.reader.readLine();
+                } catch (IOException e) {
+                    throw new WorkflowException(STANDARD_OUTPUT_CANNOT_BE_READ.toString(), e);
+                }
+            }
+            return this.nextLine != null;
+        }
+
+        @Override
+        public String next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            String line = this.nextLine;
+            this.nextLine = null;
+            return line;
+        }
+
+        @Override
+        public void close() {
+            try {
+                this.reader.close();
+            } catch (IOException e) {
+                throw new WorkflowException(STANDARD_OUTPUT_CANNOT_BE_READ.toString(), e);
+            }
         }
+    }
+    
+    private static class CaptureOutputStream extends OutputStream {
         
+        private static final int FILE_BUFFER_SIZE = 8192;
+        
+        private final Path spillFile;
+        private final int memoryLimit;
+        private final OutputStream echo;
+        private ByteArrayOutputStream memory;
+        private OutputStream file;
+        
+        private CaptureOutputStream(Path spillFile, int memoryLimit, OutputStream echo) {
+            this.spillFile = spillFile;
+            this.memoryLimit = memoryLimit;
+            this.echo = echo;
+            this.memory = new ByteArrayOutputStream();
+        }
         
         @Override
         public void close() throws IOException {
-            this.captureStream.close();
+            if (this.file != null) {
+                this.file.close();
+            }
         }
 
         @Override
         public void flush() throws IOException {
-            this.captureStream.flush();
-            System.out.flush();
+            if (this.file != null) {
+                this.file.flush();
+            }
+            this.echo.flush();
         }
 
         @Override
         public void write(int b) throws IOException {
-            this.captureStream.write(b);
-            System.out.write(b);
+            prepareFor(1).write(b);
+            this.echo.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            prepareFor(len).write(b, off, len);
+            this.echo.write(b, off, len);
+        }
+        
+        /**
+         * Returns the stream to which the given number of bytes should be written,
+         * spilling the output if the bytes exceed the memory limit.
+         */
+        private OutputStream prepareFor(int len) throws IOException {
+            if (this.file == null && this.spillFile != null && this.memory.size() + (long)len > this.memoryLimit) {
+                this.file = new BufferedOutputStream(Files.newOutputStream(this.spillFile), FILE_BUFFER_SIZE);
+                this.memory.writeTo(this.file);
+                this.memory = null;
+            }
+            return (this.file != null) ? this.file : this.memory;
+        }
+        
+        private InputStream openInputStream() throws IOException {
+            if (this.file != null) {
+                return Files.newInputStream(this.spillFile);
+            } else {
+                return new ByteArrayInputStream(this.memory.toByteArray());
+            }
         }
     }
 }
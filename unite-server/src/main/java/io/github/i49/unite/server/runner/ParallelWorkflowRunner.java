@@ -0,0 +1,243 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.i49.unite.server.runner;
+
+import static io.github.i49.unite.server.message.Message.*;
+
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import io.github.i49.unite.api.base.WorkflowException;
+import io.github.i49.unite.api.workflow.Job;
+import io.github.i49.unite.core.storage.ReadyJobChannel;
+import io.github.i49.unite.core.storage.WorkflowStorage;
+import io.github.i49.unite.core.workflow.ManagedJob;
+
+/**
+ * An implementation of {@link WorkflowRunner} which executes independent jobs
+ * concurrently on a fixed number of worker threads.
+ *
+ * <p>
+ * A single dispatcher, the thread which called {@link #runAll()},
+ * claims READY jobs from the storage and hands them to the workers.
+ * Claiming a job moves it to RUNNING atomically, so that no job is executed twice
+ * even if other runners share the same storage.
+ * Each worker promotes the successors of its job when the job completes.
+ * </p>
+ * <p>
+ * In {@link #runInfinite()} the dispatcher keeps polling the storage while any worker is free,
+ * backing off while no job is found.
+ * The dispatcher is woken up as soon as the storage reports new READY jobs
+ * or a worker completes its job.
+ * </p>
+ */
+public class ParallelWorkflowRunner extends AbstractWorkflowRunner implements WorkflowRunner {
+
+    private static final Logger log = Logger.getLogger(ParallelWorkflowRunner.class.getName());
+    
+    private final int workers;
+    private final AtomicLong totalJobsDone;
+    private volatile boolean running;
+
+    public ParallelWorkflowRunner(WorkflowStorage storage, Path directory, int workers) {
+        super(storage, directory);
+        if (workers < 1) {
+            throw new IllegalArgumentException(NUMBER_OF_WORKERS_IS_INVALID.with(workers));
+        }
+        this.workers = workers;
+        this.totalJobsDone = new AtomicLong();
+        this.running = false;
+    }
+
+    /**
+     * Returns the number of worker threads of this runner.
+     *
+     * @return the number of worker threads.
+     */
+    public int getNumberOfWorkers() {
+        return workers;
+    }
+
+    @Override
+    public long getTotalNumberOfJobsDone() {
+        return totalJobsDone.get();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public long runSingle() {
+        Optional<Job> job = getStorage().claimNextReadyJob(getRunnerId());
+        if (job.isPresent()) {
+            executeJob((ManagedJob)job.get());
+            this.totalJobsDone.incrementAndGet();
+            return 1L;
+        } else {
+            return 0L;
+        }
+    }
+
+    @Override
+    public long runAll() {
+        return run(false);
+    }
+
+    @Override
+    public long runInfinite() {
+        return run(true);
+    }
+
+    @Override
+    public void stop() {
+        if (isRunning()) {
+            requestStop();
+        }
+    }
+
+    private long run(boolean infinite) {
+        this.running = true;
+        clearStopRequest();
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        ReadyJobChannel.Subscription subscription = infinite ? subscribeReadyJobs() : null;
+        try {
+            return dispatch(executor, infinite);
+        } finally {
+            if (subscription != null) {
+                subscription.close();
+            }
+            executor.shutdownNow();
+            this.running = false;
+        }
+    }
+
+    /**
+     * Dispatches READY jobs to the workers.
+     * 
+     * <p>
+     * If not infinite, this method returns when the whole DAG has drained, 
+     * and the first failure of the jobs is thrown after that.
+     * If infinite, this method keeps polling READY jobs until stop is requested,
+     * and the failures are just logged.
+     * In either case no more jobs are claimed after stop is requested,
+     * and the jobs in flight are waited for.
+     * </p>
+     *
+     * @param executor the executor running the workers.
+     * @param infinite {@code true} if this method should run until stop is requested.
+     * @return the number of jobs done.
+     */
+    private long dispatch(ExecutorService executor, boolean infinite) {
+        CompletionService<ManagedJob> completion = new ExecutorCompletionService<>(executor);
+        Set<Future<ManagedJob>> inFlight = new HashSet<>();
+        PollingBackoff backoff = createBackoff();
+        WorkflowException failure = null;
+        long jobsDone = 0;
+        for (;;) {
+            boolean exhausted = false;
+            while (failure == null && !isStopRequested() && inFlight.size() < workers) {
+                Optional<Job> claimed = claimNextReadyJob(infinite);
+                if (!claimed.isPresent()) {
+                    exhausted = true;
+                    break;
+                }
+                ManagedJob job = (ManagedJob)claimed.get();
+                inFlight.add(completion.submit(()->{
+                    try {
+                        executeJob(job);
+                        return job;
+                    } finally {
+                        // The successors of the job may have become READY.
+                        wakeUp();
+                    }
+                }));
+                backoff.reset();
+            }
+            boolean polling = infinite && failure == null && !isStopRequested();
+            if (inFlight.isEmpty() && !polling) {
+                break;
+            }
+            try {
+                Future<ManagedJob> future;
+                if (polling && exhausted) {
+                    // Some workers are free, so wait for either new READY jobs or a completed job.
+                    future = completion.poll();
+                    if (future == null) {
+                        waitForJobs(backoff);
+                        continue;
+                    }
+                } else {
+                    future = completion.take();
+                }
+                inFlight.remove(future);
+                try {
+                    future.get();
+                    this.totalJobsDone.incrementAndGet();
+                    jobsDone++;
+                } catch (ExecutionException e) {
+                    if (infinite) {
+                        log.log(Level.SEVERE, JOB_FAILED.toString(), e.getCause());
+                    } else if (failure == null) {
+                        failure = wrap(e.getCause());
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new WorkflowException(INTERRUPTED.toString(), e);
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return jobsDone;
+    }
+    
+    /**
+     * Claims the next READY job. 
+     * Failures of the storage are logged and treated as no job is available if infinite.
+     */
+    private Optional<Job> claimNextReadyJob(boolean infinite) {
+        try {
+            return getStorage().claimNextReadyJob(getRunnerId());
+        } catch (RuntimeException e) {
+            if (!infinite) {
+                throw e;
+            }
+            log.log(Level.SEVERE, REPOSITORY_ACCESS_FAILED.toString(), e);
+            return Optional.empty();
+        }
+    }
+
+    private static WorkflowException wrap(Throwable cause) {
+        if (cause instanceof WorkflowException) {
+            return (WorkflowException)cause;
+        }
+        return new WorkflowException(JOB_FAILED.toString(), cause);
+    }
+}
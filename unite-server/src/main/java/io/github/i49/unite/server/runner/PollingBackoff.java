@@ -0,0 +1,59 @@
+/* 
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.i49.unite.server.runner;
+
+import java.time.Duration;
+
+/**
+ * Interval between the polls for READY jobs, which grows while no job is found.
+ * 
+ * <p>
+ * The interval starts from the minimum and doubles at each consecutive poll finding nothing,
+ * up to the maximum. It returns to the minimum as soon as a job is found,
+ * so that the runner keeps up with the jobs while they are arriving 
+ * and puts little load on the storage while idle.
+ * </p>
+ */
+class PollingBackoff {
+
+    private final long minimumNanos;
+    private final long maximumNanos;
+    private long currentNanos;
+    
+    PollingBackoff(Duration minimum, Duration maximum) {
+        this.minimumNanos = minimum.toNanos();
+        this.maximumNanos = maximum.toNanos();
+        this.currentNanos = this.minimumNanos;
+    }
+    
+    /**
+     * Returns the interval to wait before the next poll, and extends the interval after it.
+     * 
+     * @return the interval in nanoseconds.
+     */
+    long next() {
+        long interval = currentNanos;
+        currentNanos = Math.min(currentNanos * 2, maximumNanos);
+        return interval;
+    }
+    
+    /**
+     * Resets the interval to the minimum.
+     */
+    void reset() {
+        currentNanos = minimumNanos;
+    }
+}
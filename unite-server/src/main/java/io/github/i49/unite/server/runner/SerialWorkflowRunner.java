@@ -15,12 +15,15 @@
  */
 package io.github.i49.unite.server.runner;
 
+import static io.github.i49.unite.server.message.Message.*;
+
 import java.nio.file.Path;
 import java.util.Optional;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
-import io.github.i49.unite.api.tasks.Task;
 import io.github.i49.unite.api.workflow.Job;
-import io.github.i49.unite.api.workflow.JobStatus;
+import io.github.i49.unite.core.storage.ReadyJobChannel;
 import io.github.i49.unite.core.storage.WorkflowStorage;
 import io.github.i49.unite.core.workflow.ManagedJob;
 
@@ -29,16 +32,15 @@ import io.github.i49.unite.core.workflow.ManagedJob;
  */
 public class SerialWorkflowRunner extends AbstractWorkflowRunner implements WorkflowRunner {
 
-    private long totalJobsDone;
-    private boolean running;
-    @SuppressWarnings("unused")
-    private boolean canceled;
+    private static final Logger log = Logger.getLogger(SerialWorkflowRunner.class.getName());
+    
+    private volatile long totalJobsDone;
+    private volatile boolean running;
 
     public SerialWorkflowRunner(WorkflowStorage storage, Path directory) {
         super(storage, directory);
         this.totalJobsDone = 0;
         this.running = false;
-        this.canceled = false;
     }
 
     @Override
@@ -53,7 +55,7 @@ public class SerialWorkflowRunner extends AbstractWorkflowRunner implements Work
 
     @Override
     public long runSingle() {
-        Optional<Job> job = getStorage().findFirstJobByStatus(JobStatus.READY);
+        Optional<Job> job = getStorage().claimNextReadyJob(getRunnerId());
         if (job.isPresent()) {
             launchJob((ManagedJob)job.get());
             this.totalJobsDone++;
@@ -74,27 +76,47 @@ public class SerialWorkflowRunner extends AbstractWorkflowRunner implements Work
 
     @Override
     public long runInfinite() {
-        // TODO:
-        return 0L;
+        this.running = true;
+        clearStopRequest();
+        PollingBackoff backoff = createBackoff();
+        long jobsDone = 0;
+        ReadyJobChannel.Subscription subscription = subscribeReadyJobs();
+        try {
+            while (!isStopRequested()) {
+                if (runSingleSafely() > 0) {
+                    jobsDone++;
+                    backoff.reset();
+                } else {
+                    waitForJobs(backoff);
+                }
+            }
+        } finally {
+            subscription.close();
+            this.running = false;
+        }
+        return jobsDone;
     }
 
     @Override
     public void stop() {
         if (isRunning()) {
-            // TODO Auto-generated method stub
-            canceled = true;
+            requestStop();
         }
     }
 
+    /**
+     * Runs a single job, logging the failure instead of throwing it.
+     */
+    private long runSingleSafely() {
+        try {
+            return runSingle();
+        } catch (RuntimeException e) {
+            log.log(Level.SEVERE, JOB_FAILED.toString(), e);
+            return 0L;
+        }
+    }
+    
     private void launchJob(ManagedJob job) {
         executeJob(job);
     }
-
-    private void executeJob(ManagedJob job) {
-        JobContext context = prepareJob(job);
-        for (Task task : job.getTasks()) {
-            task.run(context);
-        }
-        completeJob(job, context);
-    }
 }
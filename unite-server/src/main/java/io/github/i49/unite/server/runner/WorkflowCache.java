@@ -0,0 +1,96 @@
+/* 
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.i49.unite.server.runner;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongFunction;
+
+import io.github.i49.unite.core.workflow.ManagedWorkflow;
+
+/**
+ * A bounded cache of the workflows of the jobs executed by a runner.
+ * 
+ * <p>
+ * The jobs of a workflow are usually executed one after another,
+ * so the workflow is loaded from the storage only for the first of them.
+ * The least recently used workflow is evicted when the cache is full.
+ * The workflows are loaded outside of the lock,
+ * hence the same workflow may be loaded more than once by concurrent misses.
+ * </p>
+ */
+class WorkflowCache {
+    
+    private final int maximumSize;
+    // guarded by this
+    private final Map<Long, ManagedWorkflow> entries;
+    private long hits;
+    private long misses;
+    
+    /**
+     * Constructs this cache.
+     * 
+     * @param maximumSize the maximum number of the workflows cached, or zero if nothing should be cached.
+     */
+    WorkflowCache(int maximumSize) {
+        this.maximumSize = maximumSize;
+        this.entries = new LinkedHashMap<Long, ManagedWorkflow>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, ManagedWorkflow> eldest) {
+                return size() > WorkflowCache.this.maximumSize;
+            }
+        };
+    }
+    
+    /**
+     * Returns the workflow, loading it if not cached.
+     * 
+     * @param workflowId the identifier of the workflow.
+     * @param loader the function which loads the workflow from the storage.
+     * @return the workflow found.
+     */
+    ManagedWorkflow get(long workflowId, LongFunction<ManagedWorkflow> loader) {
+        synchronized (this) {
+            ManagedWorkflow workflow = entries.get(workflowId);
+            if (workflow != null) {
+                hits++;
+                return workflow;
+            }
+            misses++;
+        }
+        ManagedWorkflow workflow = loader.apply(workflowId);
+        synchronized (this) {
+            if (maximumSize > 0) {
+                entries.put(workflowId, workflow);
+            }
+        }
+        return workflow;
+    }
+    
+    synchronized int size() {
+        return entries.size();
+    }
+    
+    synchronized long getHitCount() {
+        return hits;
+    }
+    
+    synchronized long getMissCount() {
+        return misses;
+    }
+}
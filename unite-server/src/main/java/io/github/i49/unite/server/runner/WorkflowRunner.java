@@ -15,13 +15,23 @@
  */
 package io.github.i49.unite.server.runner;
 
+import java.time.Duration;
+
 import io.github.i49.unite.api.base.Platform;
 
 /**
  * The interface for running workflows and jobs in the repository.
  */
-public interface WorkflowRunner {
+public interface WorkflowRunner extends AutoCloseable {
  
+    /**
+     * Returns the identifier of this runner.
+     * The identifier is recorded as the owner of the jobs claimed by this runner.
+     * 
+     * @return the identifier of this runner, never be {@code null}.
+     */
+    String getRunnerId();
+
     /**
      * Returns the current platform on which this runner is running.
      * 
@@ -36,6 +46,22 @@ public interface WorkflowRunner {
      */
     long getTotalNumberOfJobsDone();
 
+    /**
+     * Returns the total time spent by this runner executing jobs.
+     * The time is summed over all jobs, so it may exceed the elapsed time
+     * if the jobs are executed concurrently.
+     * 
+     * @return the total time spent executing jobs.
+     */
+    Duration getBusyTime();
+
+    /**
+     * Returns the total time spent by this runner waiting for READY jobs in {@link #runInfinite()}.
+     * 
+     * @return the total time spent waiting for jobs.
+     */
+    Duration getIdleTime();
+
     /**
      * Checks if this runner is running or not.
      * 
@@ -57,10 +83,28 @@ public interface WorkflowRunner {
      */
     long runAll();
 
+    /**
+     * Keeps running jobs as they become READY until {@link #stop()} is called.
+     * The repository is polled at intervals which grow while no job is found
+     * and shrink again as soon as jobs arrive.
+     * Failures of individual jobs are logged and do not stop the runner.
+     * 
+     * @return the number of jobs done by this method.
+     */
     long runInfinite();
 
     /**
      * Stops running.
+     * No more jobs are started after this call, 
+     * and the method running jobs returns as soon as the jobs already started have completed.
      */
     void stop();
+    
+    /**
+     * Closes this runner, which should have stopped running.
+     * The connection pool created by the builder of this runner is closed,
+     * while the data source given to the builder is left open.
+     */
+    @Override
+    void close();
 }
@@ -18,6 +18,7 @@ package io.github.i49.unite.server.runner;
 
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
 
 import javax.sql.DataSource;
 
@@ -32,9 +33,23 @@ public class WorkflowRunnerBuilder {
     private final WorkflowStorageBuilder storageBuilder = new WorkflowStorageBuilder();
     
     private Path directory;
+    private int workers;
+    private Duration minimumPollingInterval;
+    private Duration maximumPollingInterval;
+    private int outputMemoryLimit;
+    private int maximumOutputLines;
+    private int workflowCacheSize;
+    private boolean primitiveParameters;
+    private WorkflowStorage storage;
     
     public WorkflowRunnerBuilder() {
         this.directory = Paths.get(".");
+        this.workers = 1;
+        this.minimumPollingInterval = AbstractWorkflowRunner.DEFAULT_MINIMUM_POLLING_INTERVAL;
+        this.maximumPollingInterval = AbstractWorkflowRunner.DEFAULT_MAXIMUM_POLLING_INTERVAL;
+        this.outputMemoryLimit = AbstractWorkflowRunner.DEFAULT_OUTPUT_MEMORY_LIMIT;
+        this.maximumOutputLines = AbstractWorkflowRunner.DEFAULT_MAXIMUM_OUTPUT_LINES;
+        this.workflowCacheSize = AbstractWorkflowRunner.DEFAULT_WORKFLOW_CACHE_SIZE;
     }
     
     public WorkflowRunnerBuilder withDataSource(DataSource dataSource) {
@@ -47,9 +62,109 @@ public class WorkflowRunnerBuilder {
         return this;
     }
     
+    /**
+     * Specifies the number of jobs to be executed concurrently.
+     * The runner built executes jobs sequentially if the number is one, which is the default.
+     * 
+     * @param workers the number of worker threads.
+     * @return this builder.
+     */
+    public WorkflowRunnerBuilder withWorkers(int workers) {
+        this.workers = workers;
+        return this;
+    }
+    
+    /**
+     * Specifies the range of the interval between polls for READY jobs 
+     * while the runner is running infinitely.
+     * 
+     * @param minimum the interval while jobs are arriving.
+     * @param maximum the interval after a long idle period.
+     * @return this builder.
+     */
+    public WorkflowRunnerBuilder withPollingInterval(Duration minimum, Duration maximum) {
+        this.minimumPollingInterval = minimum;
+        this.maximumPollingInterval = maximum;
+        return this;
+    }
+    
+    /**
+     * Specifies how the standard output of the jobs is captured.
+     * By default 1 MiB of the output is kept in memory and the last 10000 lines are stored.
+     * 
+     * @param memoryLimit the number of bytes kept in memory before the output spills to a file in the job directory.
+     * @param maximumLines the number of the last lines to be stored, or zero if all lines should be stored.
+     * @return this builder.
+     */
+    public WorkflowRunnerBuilder withOutputCapture(int memoryLimit, int maximumLines) {
+        this.outputMemoryLimit = memoryLimit;
+        this.maximumOutputLines = maximumLines;
+        return this;
+    }
+    
+    /**
+     * Specifies the number of the workflows cached by the runner, which is 256 by default.
+     * 
+     * @param size the maximum number of the workflows cached, or zero if nothing should be cached.
+     * @return this builder.
+     */
+    public WorkflowRunnerBuilder withWorkflowCacheSize(int size) {
+        this.workflowCacheSize = size;
+        return this;
+    }
+    
+    /**
+     * Specifies that the runner should store the output parameters of the jobs also entry by entry,
+     * as the repository built with {@code RepositoryOption.PARAMETER_INDEX} does.
+     * 
+     * @return this builder.
+     */
+    public WorkflowRunnerBuilder withParameterIndex() {
+        this.storageBuilder.withParameterIndex();
+        return this;
+    }
+    
+    /**
+     * Specifies that the tasks should receive the input and the output of the jobs
+     * as {@code PrimitiveParameterSet}, whose typed accessors such as {@code putDouble} do not box the values.
+     * By default they are received as {@code SimpleParameterSet}.
+     * 
+     * @return this builder.
+     */
+    public WorkflowRunnerBuilder withPrimitiveParameters() {
+        this.primitiveParameters = true;
+        return this;
+    }
+    
+    /**
+     * Specifies the storage to be shared with a repository or other runners,
+     * for example an {@code InMemoryWorkflowStorage} of an embedded application.
+     * The data source and the parameter index are ignored, 
+     * and the storage is not closed by the runner built.
+     * 
+     * @param storage the storage of the workflows.
+     * @return this builder.
+     */
+    public WorkflowRunnerBuilder withStorage(WorkflowStorage storage) {
+        this.storage = storage;
+        return this;
+    }
+    
     public WorkflowRunner build() {
-        WorkflowStorage storage = this.storageBuilder.build();
-        return new SerialWorkflowRunner(storage, getNormalizedDirectory());
+        boolean ownsStorage = (this.storage == null);
+        WorkflowStorage storage = ownsStorage ? this.storageBuilder.build() : this.storage;
+        AbstractWorkflowRunner runner;
+        if (this.workers == 1) {
+            runner = new SerialWorkflowRunner(storage, getNormalizedDirectory());
+        } else {
+            runner = new ParallelWorkflowRunner(storage, getNormalizedDirectory(), this.workers);
+        }
+        runner.setPollingInterval(minimumPollingInterval, maximumPollingInterval);
+        runner.setOutputCapture(outputMemoryLimit, maximumOutputLines);
+        runner.setWorkflowCacheSize(workflowCacheSize);
+        runner.setPrimitiveParametersEnabled(primitiveParameters);
+        runner.setStorageOwned(ownsStorage);
+        return runner;
     }
     
     private Path getNormalizedDirectory() {
@@ -19,20 +19,36 @@ package io.github.i49.unite.server;
 import javax.sql.DataSource;
 
 import io.github.i49.unite.core.storage.util.DirectDataSource;
+import io.github.i49.unite.core.storage.util.PooledDataSource;
 
 /**
  * @author i49
  */
 public class DataSources {
     
-    public static DataSource get() {
-        return getDirectDataSource();
-    }
-    
     private static final String URL = "jdbc:hsqldb:mem:unite";
     private static final String PASSWORD = "sa";
     
+    private static DataSource shared;
+    
+    /**
+     * Returns the data source shared by the repository and the runners in the tests,
+     * so that the runners are notified of the jobs added through the repository.
+     * 
+     * @return the shared data source.
+     */
+    public static synchronized DataSource get() {
+        if (shared == null) {
+            shared = getPooledDataSource();
+        }
+        return shared;
+    }
+    
     private static DataSource getDirectDataSource() {
         return new DirectDataSource(URL, PASSWORD, null);
     }
+    
+    private static DataSource getPooledDataSource() {
+        return new PooledDataSource(getDirectDataSource());
+    }
 }
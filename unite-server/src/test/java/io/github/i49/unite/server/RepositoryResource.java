@@ -43,6 +43,7 @@ public class RepositoryResource extends ExternalResource {
     
     @Override
     protected void after() {
+        this.repository.close();
         this.repository = null;
     }
     
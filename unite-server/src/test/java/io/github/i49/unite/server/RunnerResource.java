@@ -33,8 +33,17 @@ public class RunnerResource extends ExternalResource {
     
     private static final Path DIRECTORY = Paths.get("target/work");
     
+    private final int workers;
     private WorkflowRunner runner;
 
+    public RunnerResource() {
+        this(1);
+    }
+
+    public RunnerResource(int workers) {
+        this.workers = workers;
+    }
+
     public WorkflowRunner getRunner() {
         return runner;
     }
@@ -42,18 +51,20 @@ public class RunnerResource extends ExternalResource {
     @Override
     protected void before() {
         DataSource dataSource = DataSources.get();
-        this.runner = buildRunner(dataSource);
+        this.runner = buildRunner(dataSource, workers);
     }
     
     @Override
     protected void after() {
+        this.runner.close();
         this.runner = null;
     }
     
-    private static WorkflowRunner buildRunner(DataSource dataSource) {
+    private static WorkflowRunner buildRunner(DataSource dataSource, int workers) {
         return new WorkflowRunnerBuilder()
                 .withDataSource(dataSource)
                 .withDirectory(DIRECTORY)
+                .withWorkers(workers)
                 .build();
     }
 }
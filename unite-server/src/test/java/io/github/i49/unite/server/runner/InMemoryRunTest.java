@@ -0,0 +1,84 @@
+/* 
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.i49.unite.server.runner;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.github.i49.unite.api.repository.WorkflowRepository;
+import io.github.i49.unite.api.workflow.Job;
+import io.github.i49.unite.api.workflow.JobStatus;
+import io.github.i49.unite.api.workflow.WorkflowFactory;
+import io.github.i49.unite.core.repository.DefaultWorkflowRepositoryBuilder;
+import io.github.i49.unite.core.storage.WorkflowStorage;
+import io.github.i49.unite.core.storage.memory.InMemoryWorkflowStorage;
+
+/**
+ * Test of the runner sharing an {@link InMemoryWorkflowStorage} with the repository.
+ */
+public class InMemoryRunTest {
+
+    private WorkflowStorage storage;
+    private WorkflowRepository repository;
+    private WorkflowRunner runner;
+    private WorkflowFactory workflowFactory;
+
+    @Before
+    public void setUp() {
+        storage = new InMemoryWorkflowStorage();
+        repository = new DefaultWorkflowRepositoryBuilder().withStorage(storage).build();
+        runner = new WorkflowRunnerBuilder()
+                .withStorage(storage)
+                .withDirectory(Paths.get("target/work"))
+                .build();
+        workflowFactory = WorkflowFactory.newInstance();
+    }
+
+    @After
+    public void tearDown() {
+        runner.close();
+        repository.close();
+    }
+
+    @Test
+    public void runSingle_shouldRunJobsAddedToSharedStorage() {
+        Job job1 = workflowFactory.createJobBuilder("job1")
+                .tasks(new SummingTask())
+                .input("numbers", Arrays.asList(1, 2, 3))
+                .build();
+        Job job2 = workflowFactory.createJobBuilder("job2")
+                .tasks(new ScalingTask())
+                .input("multiplier", 4)
+                .build();
+        repository.addWorkflow(workflowFactory.createWorkflowBuilder("workflow1")
+                .link(job1, job2, workflowFactory.createKeyMapper("sum", "multiplicand"))
+                .build());
+
+        assertThat(runner.runSingle()).isEqualTo(1);
+        assertThat(runner.runSingle()).isEqualTo(1);
+
+        Job found = repository.findJobById(job2.getId());
+        assertThat(found.getStatus()).isSameAs(JobStatus.COMPLETED);
+        assertThat(found.getOutputParameters()).containsEntry("answer", 24);
+        assertThat(found.getInputParameters()).doesNotContainKey("multiplicand");
+    }
+}
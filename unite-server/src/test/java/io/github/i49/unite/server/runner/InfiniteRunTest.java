@@ -0,0 +1,109 @@
+/* 
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.i49.unite.server.runner;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+
+import io.github.i49.unite.api.repository.WorkflowRepository;
+import io.github.i49.unite.api.tasks.TaskFactory;
+import io.github.i49.unite.api.workflow.JobStatus;
+import io.github.i49.unite.api.workflow.WorkflowBuilder;
+import io.github.i49.unite.api.workflow.WorkflowFactory;
+import io.github.i49.unite.server.DataSources;
+import io.github.i49.unite.server.RepositoryResource;
+
+/**
+ * Test of {@link WorkflowRunner#runInfinite()} shared by the serial and the parallel runners.
+ */
+@RunWith(Parameterized.class)
+public class InfiniteRunTest {
+
+    @ClassRule
+    public static RepositoryResource repositoryResource = new RepositoryResource();
+
+    @Parameters(name = "workers={0}")
+    public static Collection<Object[]> parameters() {
+        return Arrays.asList(new Object[][] {{1}, {4}});
+    }
+
+    @Parameter
+    public int workers;
+
+    private WorkflowRepository repository;
+    private WorkflowFactory workflowFactory;
+    private TaskFactory taskFactory;
+
+    private WorkflowRunner runner;
+
+    @Before
+    public void setUp() {
+        repository = repositoryResource.getRepository();
+        repository.clear();
+
+        workflowFactory = WorkflowFactory.newInstance();
+        taskFactory = TaskFactory.newInstance();
+
+        runner = new WorkflowRunnerBuilder()
+                .withDataSource(DataSources.get())
+                .withDirectory(Paths.get("target/work"))
+                .withWorkers(workers)
+                .build();
+    }
+
+    @Test
+    public void runInfinite_shouldRunJobsSubmittedLater() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<Long> done = executor.submit(runner::runInfinite);
+        Thread.sleep(100);
+
+        WorkflowBuilder builder = workflowFactory.createWorkflowBuilder("workflow1");
+        for (int i = 0; i < 5; i++) {
+            builder.jobs(workflowFactory.createJobBuilder("job" + i)
+                    .tasks(taskFactory.createEchoTask("Running job" + i))
+                    .build());
+        }
+        repository.addWorkflow(builder.build());
+
+        long deadline = System.currentTimeMillis() + 10000;
+        while (repository.countJobsWithStatus(JobStatus.COMPLETED) < 5 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        runner.stop();
+
+        assertThat(done.get(10, TimeUnit.SECONDS)).isEqualTo(5);
+        assertThat(runner.isRunning()).isFalse();
+        assertThat(runner.getIdleTime()).isGreaterThan(Duration.ZERO);
+        assertThat(runner.getBusyTime()).isGreaterThan(Duration.ZERO);
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,83 @@
+/* 
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.i49.unite.server.runner;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Unit test of {@link JobPrintStream}.
+ */
+public class JobPrintStreamTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    
+    @Test
+    public void lines_shouldReturnLinesInMemory() throws IOException {
+        Path spillFile = folder.getRoot().toPath().resolve(JobPrintStream.SPILL_FILE_NAME);
+        try (JobPrintStream stream = new JobPrintStream(spillFile, 1024, 0)) {
+            stream.println("Hello");
+            stream.println("World");
+            assertThat(lines(stream)).containsExactly("Hello", "World");
+            assertThat(stream.hasSpilled()).isFalse();
+        }
+        assertThat(spillFile).doesNotExist();
+    }
+    
+    @Test
+    public void lines_shouldReadSpilledLines() throws IOException {
+        Path spillFile = folder.getRoot().toPath().resolve(JobPrintStream.SPILL_FILE_NAME);
+        try (JobPrintStream stream = new JobPrintStream(spillFile, 16, 0)) {
+            for (int i = 0; i < 10; i++) {
+                stream.println("line" + i);
+            }
+            assertThat(stream.hasSpilled()).isTrue();
+            List<String> lines = lines(stream);
+            assertThat(lines).hasSize(10);
+            assertThat(lines.get(0)).isEqualTo("line0");
+            assertThat(lines.get(9)).isEqualTo("line9");
+        }
+        assertThat(Files.readAllLines(spillFile)).hasSize(10);
+    }
+
+    @Test
+    public void lines_shouldKeepLastLines() {
+        Path spillFile = folder.getRoot().toPath().resolve(JobPrintStream.SPILL_FILE_NAME);
+        try (JobPrintStream stream = new JobPrintStream(spillFile, 16, 3)) {
+            for (int i = 0; i < 10; i++) {
+                stream.println("line" + i);
+            }
+            assertThat(lines(stream)).containsExactly("line7", "line8", "line9");
+        }
+    }
+    
+    private static List<String> lines(JobPrintStream stream) {
+        try (Stream<String> lines = stream.lines()) {
+            return lines.collect(Collectors.toList());
+        }
+    }
+}
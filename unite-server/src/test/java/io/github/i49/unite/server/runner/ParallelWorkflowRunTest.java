@@ -0,0 +1,200 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.i49.unite.server.runner;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import io.github.i49.unite.api.repository.WorkflowRepository;
+import io.github.i49.unite.api.tasks.TaskFactory;
+import io.github.i49.unite.api.workflow.Job;
+import io.github.i49.unite.api.workflow.JobStatus;
+import io.github.i49.unite.api.workflow.Workflow;
+import io.github.i49.unite.api.workflow.WorkflowBuilder;
+import io.github.i49.unite.api.workflow.WorkflowFactory;
+import io.github.i49.unite.server.DataSources;
+import io.github.i49.unite.server.RepositoryResource;
+import io.github.i49.unite.server.RunnerResource;
+
+/**
+ * Unit test of {@link ParallelWorkflowRunner}.
+ */
+public class ParallelWorkflowRunTest {
+
+    @ClassRule
+    public static RepositoryResource repositoryResource = new RepositoryResource();
+    @ClassRule
+    public static RunnerResource runnerResource = new RunnerResource(4);
+
+    private WorkflowRepository repository;
+    private WorkflowFactory workflowFactory;
+    private TaskFactory taskFactory;
+
+    private WorkflowRunner runner;
+
+    @Before
+    public void setUp() {
+        repository = repositoryResource.getRepository();
+        repository.clear();
+
+        workflowFactory = WorkflowFactory.newInstance();
+        taskFactory = TaskFactory.newInstance();
+
+        runner = runnerResource.getRunner();
+    }
+
+    @Test
+    public void build_shouldCreateParallelRunner() {
+        assertThat(runner).isInstanceOf(ParallelWorkflowRunner.class);
+    }
+
+    @Test
+    public void runAll_shouldRunIndependentJobs() {
+        WorkflowBuilder builder = workflowFactory.createWorkflowBuilder("workflow1");
+        for (int i = 0; i < 20; i++) {
+            builder.jobs(workflowFactory.createJobBuilder("job" + i)
+                    .tasks(taskFactory.createEchoTask("Running job" + i))
+                    .build());
+        }
+        repository.addWorkflow(builder.build());
+
+        assertThat(runner.runAll()).isEqualTo(20);
+        assertThat(repository.countJobsWithStatus(JobStatus.COMPLETED)).isEqualTo(20);
+        assertThat(runner.isRunning()).isFalse();
+    }
+
+    @Test
+    public void runAll_shouldNotRunJobTwiceAcrossRunners() throws Exception {
+        WorkflowBuilder builder = workflowFactory.createWorkflowBuilder("workflow1");
+        for (int i = 0; i < 50; i++) {
+            builder.jobs(workflowFactory.createJobBuilder("job" + i)
+                    .tasks(taskFactory.createEchoTask("Running job" + i))
+                    .build());
+        }
+        repository.addWorkflow(builder.build());
+
+        WorkflowRunner other = new WorkflowRunnerBuilder()
+                .withDataSource(DataSources.get())
+                .withDirectory(Paths.get("target/work"))
+                .withWorkers(4)
+                .build();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<Long> otherDone = executor.submit(other::runAll);
+        long done = runner.runAll();
+        done += otherDone.get();
+        executor.shutdown();
+
+        assertThat(done).isEqualTo(50);
+        assertThat(repository.countJobsWithStatus(JobStatus.COMPLETED)).isEqualTo(50);
+    }
+
+    @Test
+    public void runAll_shouldRunJobsInDiamondDependencies() {
+        Job job1 = workflowFactory.createJobBuilder("job1")
+                .tasks(taskFactory.createEchoTask("Running job1"))
+                .build();
+        Job job2 = workflowFactory.createJobBuilder("job2")
+                .tasks(taskFactory.createEchoTask("Running job2"))
+                .build();
+        Job job3 = workflowFactory.createJobBuilder("job3")
+                .tasks(taskFactory.createEchoTask("Running job3"))
+                .build();
+        Job job4 = workflowFactory.createJobBuilder("job4")
+                .tasks(taskFactory.createEchoTask("Running job4"))
+                .build();
+
+        Workflow workflow1 = workflowFactory.createWorkflowBuilder("workflow1")
+                .link(job1, job2)
+                .link(job1, job3)
+                .link(job2, job4)
+                .link(job3, job4)
+                .build();
+
+        repository.addWorkflow(workflow1);
+
+        assertThat(runner.runAll()).isEqualTo(4);
+        assertThat(repository.getJobStatus(job1.getId())).isSameAs(JobStatus.COMPLETED);
+        assertThat(repository.getJobStatus(job2.getId())).isSameAs(JobStatus.COMPLETED);
+        assertThat(repository.getJobStatus(job3.getId())).isSameAs(JobStatus.COMPLETED);
+        assertThat(repository.getJobStatus(job4.getId())).isSameAs(JobStatus.COMPLETED);
+    }
+
+    @Test
+    public void runAll_shouldRunJobsPassingParameters() {
+        Job job1 = workflowFactory.createJobBuilder("job1")
+                .tasks(new SummingTask())
+                .input("numbers", Arrays.asList(1, 2, 3))
+                .build();
+        Job job2 = workflowFactory.createJobBuilder("job2")
+                .tasks(new ScalingTask())
+                .input("multiplier", 4)
+                .build();
+
+        Workflow workflow1 = workflowFactory.createWorkflowBuilder("workflow1")
+                .link(job1, job2, workflowFactory.createKeyMapper("sum", "multiplicand"))
+                .build();
+
+        repository.addWorkflow(workflow1);
+
+        assertThat(runner.runAll()).isEqualTo(2);
+
+        job2 = repository.findJobById(job2.getId());
+        Map<String, Object> out = job2.getOutputParameters();
+        assertThat(out.get("answer")).isEqualTo(24);
+    }
+
+    @Test
+    public void runInfinite_shouldWakeUpOnNewReadyJobs() throws Exception {
+        WorkflowRunner idle = new WorkflowRunnerBuilder()
+                .withDataSource(DataSources.get())
+                .withDirectory(Paths.get("target/work"))
+                .withWorkers(2)
+                .withPollingInterval(Duration.ofMinutes(1), Duration.ofMinutes(1))
+                .build();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<Long> done = executor.submit(idle::runInfinite);
+        Thread.sleep(100);
+
+        Job job1 = workflowFactory.createJobBuilder("job1")
+                .tasks(taskFactory.createEchoTask("Running job1"))
+                .build();
+        Job job2 = workflowFactory.createJobBuilder("job2")
+                .tasks(taskFactory.createEchoTask("Running job2"))
+                .build();
+        repository.addWorkflow(workflowFactory.createWorkflowBuilder("workflow1").link(job1, job2).build());
+
+        long deadline = System.currentTimeMillis() + 10000;
+        while (repository.countJobsWithStatus(JobStatus.COMPLETED) < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        idle.stop();
+
+        assertThat(done.get(10, TimeUnit.SECONDS)).isEqualTo(2);
+        executor.shutdown();
+    }
+}
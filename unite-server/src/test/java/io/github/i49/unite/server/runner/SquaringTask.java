@@ -0,0 +1,38 @@
+/* 
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.i49.unite.server.runner;
+
+import io.github.i49.unite.api.base.ParameterSet;
+import io.github.i49.unite.api.tasks.Task;
+import io.github.i49.unite.api.tasks.TaskContext;
+import io.github.i49.unite.core.workflow.PrimitiveParameterSet;
+
+/**
+ * The task which squares the input "x" through the typed accessors,
+ * and reports whether the parameters are {@link PrimitiveParameterSet}.
+ */
+public class SquaringTask implements Task {
+
+    @Override
+    public void run(TaskContext context) {
+        ParameterSet input = context.getInputParameters();
+        ParameterSet output = context.getOutputParameters();
+        double x = input.getDouble("x");
+        output.putDouble("square", x * x);
+        output.putBoolean("primitive", 
+                input instanceof PrimitiveParameterSet && output instanceof PrimitiveParameterSet);
+    }
+}
@@ -16,7 +16,7 @@
 
 package io.github.i49.unite.server.runner;
 
-import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.*;
 
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -92,6 +92,27 @@ public class TaskRunTest {
         assertThat(job.getStatus()).isSameAs(JobStatus.COMPLETED);
     }
 
+    @Test
+    public void scriptTask_shouldFailJobOnNonZeroExit() {
+        // given
+        Path dir = Paths.get("target/test-classes");
+        Path path = dir.resolve("fail" + getScriptExtension());
+        Task task = taskFactory.createShellTaskBuilder(path)
+                .arguments("John")
+                .build();
+        Job job = workflowFactory.createJobBuilder("job1").tasks(task).build();
+        repository.addWorkflow(workflowFactory.createWorkflowBuilder("workflow1").jobs(job).build());
+        
+        // when
+        Throwable thrown = catchThrowable(runner::runSingle);
+        
+        // then
+        assertThat(thrown).hasMessageContaining("exited with value 2");
+        Job failed = repository.findJobById(job.getId());
+        assertThat(failed.getStatus()).isSameAs(JobStatus.FAILED);
+        assertThat(failed.getStandardOutput()).contains("Failing John");
+    }
+
     private Job runTask(Task task) {
         Job job = workflowFactory.createJobBuilder("job1").tasks(task).build();
         Workflow workflow = workflowFactory.createWorkflowBuilder("workflow1").jobs(job).build();
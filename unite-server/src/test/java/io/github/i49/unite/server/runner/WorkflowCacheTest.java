@@ -0,0 +1,80 @@
+/* 
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.i49.unite.server.runner;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongFunction;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import io.github.i49.unite.core.workflow.ManagedWorkflow;
+import io.github.i49.unite.core.workflow.ManagedWorkflowBuilder;
+
+/**
+ * Unit test of {@link WorkflowCache}.
+ */
+public class WorkflowCacheTest {
+
+    private AtomicInteger loads;
+    private LongFunction<ManagedWorkflow> loader;
+    
+    @Before
+    public void setUp() {
+        loads = new AtomicInteger();
+        loader = workflowId->{
+            loads.incrementAndGet();
+            ManagedWorkflow workflow = new ManagedWorkflowBuilder("workflow" + workflowId).build();
+            workflow.setId(workflowId);
+            return workflow;
+        };
+    }
+    
+    @Test
+    public void get_shouldLoadWorkflowOnce() {
+        WorkflowCache cache = new WorkflowCache(2);
+        ManagedWorkflow first = cache.get(1, loader);
+        assertThat(cache.get(1, loader)).isSameAs(first);
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(cache.getHitCount()).isEqualTo(1);
+        assertThat(cache.getMissCount()).isEqualTo(1);
+    }
+    
+    @Test
+    public void get_shouldEvictLeastRecentlyUsed() {
+        WorkflowCache cache = new WorkflowCache(2);
+        cache.get(1, loader);
+        cache.get(2, loader);
+        cache.get(1, loader);
+        cache.get(3, loader);
+        assertThat(cache.size()).isEqualTo(2);
+        cache.get(1, loader);
+        assertThat(loads.get()).isEqualTo(3);
+        cache.get(2, loader);
+        assertThat(loads.get()).isEqualTo(4);
+    }
+    
+    @Test
+    public void get_shouldNotCacheIfSizeIsZero() {
+        WorkflowCache cache = new WorkflowCache(0);
+        cache.get(1, loader);
+        cache.get(1, loader);
+        assertThat(loads.get()).isEqualTo(2);
+        assertThat(cache.size()).isEqualTo(0);
+    }
+}
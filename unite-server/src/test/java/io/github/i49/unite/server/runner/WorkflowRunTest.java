@@ -17,6 +17,7 @@ package io.github.i49.unite.server.runner;
 
 import static org.assertj.core.api.Assertions.*;
 
+import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.Map;
 
@@ -24,13 +25,17 @@ import org.junit.Before;
 import org.junit.ClassRule;
 import org.junit.Test;
 
+import io.github.i49.unite.api.base.ParameterSet;
 import io.github.i49.unite.api.repository.WorkflowRepository;
 import io.github.i49.unite.api.tasks.Task;
 import io.github.i49.unite.api.tasks.TaskFactory;
 import io.github.i49.unite.api.workflow.Job;
 import io.github.i49.unite.api.workflow.JobStatus;
+import io.github.i49.unite.api.workflow.ParameterSetMapper;
 import io.github.i49.unite.api.workflow.Workflow;
+import io.github.i49.unite.api.workflow.WorkflowBuilder;
 import io.github.i49.unite.api.workflow.WorkflowFactory;
+import io.github.i49.unite.server.DataSources;
 import io.github.i49.unite.server.RepositoryResource;
 import io.github.i49.unite.server.RunnerResource;
 
@@ -58,6 +63,21 @@ public class WorkflowRunTest {
         runner = runnerResource.getRunner();
     }
 
+    @Test
+    public void runSingle_shouldReadWorkflowOnlyForFirstJob() {
+        AbstractWorkflowRunner runner = (AbstractWorkflowRunner)this.runner;
+        Job job1 = workflowFactory.createJobBuilder("job1").build();
+        Job job2 = workflowFactory.createJobBuilder("job2").build();
+        Job job3 = workflowFactory.createJobBuilder("job3").build();
+        repository.addWorkflow(workflowFactory.createWorkflowBuilder("workflow1").jobs(job1, job2, job3).build());
+        
+        long hits = runner.getWorkflowCacheHits();
+        long misses = runner.getWorkflowCacheMisses();
+        assertThat(runner.runSingle() + runner.runSingle() + runner.runSingle()).isEqualTo(3);
+        assertThat(runner.getWorkflowCacheMisses() - misses).isEqualTo(1);
+        assertThat(runner.getWorkflowCacheHits() - hits).isEqualTo(2);
+    }
+    
     @Test
     public void runSingle_shouldRunSingleJob() {
         Task task1 = taskFactory.createEchoTask("Hello");
@@ -98,6 +118,30 @@ public class WorkflowRunTest {
         assertThat(repository.getJobStatus(job2.getId())).isSameAs(JobStatus.COMPLETED);
     }
 
+    @Test
+    public void runSingle_shouldPromoteFanInJobAfterAllParents() {
+        Job last = workflowFactory.createJobBuilder("last")
+                .tasks(taskFactory.createEchoTask("Running last"))
+                .build();
+        WorkflowBuilder builder = workflowFactory.createWorkflowBuilder("workflow1");
+        for (int i = 0; i < 10; i++) {
+            Job parent = workflowFactory.createJobBuilder("parent" + i)
+                    .tasks(taskFactory.createEchoTask("Running parent" + i))
+                    .build();
+            builder.link(parent, last);
+        }
+        repository.addWorkflow(builder.build());
+        
+        for (int i = 0; i < 9; i++) {
+            runner.runSingle();
+            assertThat(repository.getJobStatus(last.getId())).isSameAs(JobStatus.WAITING);
+        }
+        runner.runSingle();
+        assertThat(repository.getJobStatus(last.getId())).isSameAs(JobStatus.READY);
+        runner.runSingle();
+        assertThat(repository.getJobStatus(last.getId())).isSameAs(JobStatus.COMPLETED);
+    }
+
     @Test
     public void runSingle_shouldRunJobInDiamondDependencies() {
         Job job1 = workflowFactory.createJobBuilder("job1")
@@ -207,4 +251,92 @@ public class WorkflowRunTest {
         Map<String, Object> out = job2.getOutputParameters();
         assertThat(out.get("answer")).isEqualTo(24);
    }
+
+    @Test
+    public void runSingle_shouldReadOutputsStoredWithoutIndex() {
+        Job job1 = workflowFactory.createJobBuilder("job1")
+                .tasks(new SummingTask())
+                .input("numbers", Arrays.asList(1, 2, 3))
+                .build();
+        Job job2 = workflowFactory.createJobBuilder("job2")
+                .tasks(new ScalingTask())
+                .input("multiplier", 4)
+                .build();
+        repository.addWorkflow(workflowFactory.createWorkflowBuilder("workflow1")
+                .link(job1, job2, workflowFactory.createKeyMapper("sum", "multiplicand"))
+                .build());
+
+        runner.runSingle();
+        try (WorkflowRunner indexed = new WorkflowRunnerBuilder()
+                .withDataSource(DataSources.get())
+                .withDirectory(Paths.get("target/work"))
+                .withParameterIndex()
+                .build()) {
+            indexed.runSingle();
+        }
+
+        job2 = repository.findJobById(job2.getId());
+        assertThat(job2.getOutputParameters().get("answer")).isEqualTo(24);
+    }
+
+    @Test
+    public void runSingle_shouldPassPrimitiveParametersIfEnabled() {
+        Job job1 = workflowFactory.createJobBuilder("job1")
+                .tasks(new SquaringTask())
+                .input("x", 3.0)
+                .build();
+        Job job2 = workflowFactory.createJobBuilder("job2")
+                .tasks(new SquaringTask())
+                .build();
+        repository.addWorkflow(workflowFactory.createWorkflowBuilder("workflow1")
+                .link(job1, job2, workflowFactory.createKeyMapper("square", "x"))
+                .build());
+
+        try (WorkflowRunner primitive = new WorkflowRunnerBuilder()
+                .withDataSource(DataSources.get())
+                .withDirectory(Paths.get("target/work"))
+                .withPrimitiveParameters()
+                .build()) {
+            primitive.runSingle();
+            primitive.runSingle();
+        }
+
+        Map<String, Object> out = repository.findJobById(job2.getId()).getOutputParameters();
+        assertThat(out.get("square")).isEqualTo(81.0);
+        assertThat(out.get("primitive")).isEqualTo(true);
+    }
+
+    @Test
+    public void runSingle_shouldFailJobIfInputCannotBeMapped() {
+        Job job1 = workflowFactory.createJobBuilder("job1")
+                .tasks(new SummingTask())
+                .input("numbers", Arrays.asList(1, 2, 3))
+                .build();
+        Job job2 = workflowFactory.createJobBuilder("job2")
+                .tasks(new ScalingTask())
+                .build();
+        
+        Workflow workflow1 = workflowFactory.createWorkflowBuilder("workflow1")
+                .link(job1, job2, new FailingMapper())
+                .build();
+
+        repository.addWorkflow(workflow1);
+
+        runner.runSingle();
+        Throwable thrown = catchThrowable(runner::runSingle);
+
+        assertThat(thrown).hasMessage("Mapping failed");
+        job2 = repository.findJobById(job2.getId());
+        assertThat(job2.getStatus()).isSameAs(JobStatus.FAILED);
+        assertThat(job2.getStandardOutput()).containsExactly("Mapping failed");
+    }
+
+    @SuppressWarnings("serial")
+    private static class FailingMapper implements ParameterSetMapper {
+
+        @Override
+        public void mapParameterSet(ParameterSet source, ParameterSet target) {
+            throw new IllegalStateException("Mapping failed");
+        }
+    }
 }
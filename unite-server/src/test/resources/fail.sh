@@ -0,0 +1,2 @@
+echo Failing $1
+exit 2